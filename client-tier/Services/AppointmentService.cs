@@ -130,7 +130,11 @@ public class AppointmentService
             var url = "slots?" + string.Join("&", queryParams);
 
             var response = await _httpClient.GetFromJsonAsync<ApiResponse<List<SlotModel>>>(url);
-            return response?.Data ?? new List<SlotModel>();
+            // Streamed in slot id order; shown by day and time
+            return (response?.Data ?? new List<SlotModel>())
+                .OrderBy(s => s.Date)
+                .ThenBy(s => s.StartTime)
+                .ToList();
         }
         catch
         {
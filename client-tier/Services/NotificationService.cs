@@ -1,10 +1,15 @@
 using System.Net.Http.Json;
+using System.Text.Json;
 using ClinicClient.Models;
+using Microsoft.AspNetCore.Components.WebAssembly.Http;
 
 namespace ClinicClient.Services;
 
 public class NotificationService
 {
+    private static readonly TimeSpan ReconnectDelay = TimeSpan.FromSeconds(5);
+    private static readonly JsonSerializerOptions JsonOptions = new(JsonSerializerDefaults.Web);
+
     private readonly HttpClient _httpClient;
 
     public NotificationService(HttpClient httpClient)
@@ -27,6 +32,37 @@ public class NotificationService
         }
     }
 
+    // GET /api/notifications/unread-count - the signed-in user's maintained counter, no history download
+    public async Task<long> GetUnreadCountAsync()
+    {
+        try
+        {
+            var response = await _httpClient.GetFromJsonAsync<ApiResponse<Dictionary<string, long>>>(
+                "notifications/unread-count");
+            return response?.Data?.GetValueOrDefault("unreadCount") ?? 0;
+        }
+        catch
+        {
+            return 0;
+        }
+    }
+
+    // PATCH /api/notifications - marks the signed-in user's notifications up to upToId (or all) read in one call
+    public async Task<bool> MarkAllAsReadAsync(long upToId = 0)
+    {
+        try
+        {
+            var response = await _httpClient.PatchAsJsonAsync(
+                "notifications",
+                new { status = "READ", upToId = upToId.ToString() });
+            return response.IsSuccessStatusCode;
+        }
+        catch
+        {
+            return false;
+        }
+    }
+
     // PATCH /api/notifications/{id} - RESTful: PATCH for partial update
     public async Task<bool> MarkAsReadAsync(long notificationId)
     {
@@ -56,5 +92,66 @@ public class NotificationService
             return (false, ex.Message);
         }
     }
-}
 
+    // GET /api/notifications/stream - server-sent events for the signed-in user.
+    // Reconnects until cancelled, resuming after the last id seen so nothing is missed.
+    public async Task SubscribeAsync(long afterId, Func<NotificationModel, Task> onNotification,
+        CancellationToken cancellationToken)
+    {
+        var lastId = afterId;
+        while (!cancellationToken.IsCancellationRequested)
+        {
+            try
+            {
+                var request = new HttpRequestMessage(HttpMethod.Get, "notifications/stream");
+                request.SetBrowserResponseStreamingEnabled(true);
+                if (lastId > 0)
+                {
+                    request.Headers.Add("Last-Event-ID", lastId.ToString());
+                }
+
+                using var response = await _httpClient.SendAsync(request,
+                    HttpCompletionOption.ResponseHeadersRead, cancellationToken);
+                response.EnsureSuccessStatusCode();
+
+                using var reader = new StreamReader(await response.Content.ReadAsStreamAsync(cancellationToken));
+                var data = new List<string>();
+                string? line;
+                while ((line = await reader.ReadLineAsync(cancellationToken)) != null)
+                {
+                    if (line.StartsWith("data:"))
+                    {
+                        data.Add(line[5..].TrimStart());
+                    }
+                    else if (line.Length == 0 && data.Count > 0)
+                    {
+                        var notification = JsonSerializer.Deserialize<NotificationModel>(string.Join("\n", data), JsonOptions);
+                        data.Clear();
+                        if (notification != null)
+                        {
+                            lastId = Math.Max(lastId, notification.NotificationId);
+                            await onNotification(notification);
+                        }
+                    }
+                }
+            }
+            catch (OperationCanceledException)
+            {
+                return;
+            }
+            catch
+            {
+                // Stream dropped or the logic tier is down; retry below
+            }
+
+            try
+            {
+                await Task.Delay(ReconnectDelay, cancellationToken);
+            }
+            catch (OperationCanceledException)
+            {
+                return;
+            }
+        }
+    }
+}
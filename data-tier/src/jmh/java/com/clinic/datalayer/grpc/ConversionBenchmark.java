@@ -0,0 +1,92 @@
+package com.clinic.datalayer.grpc;
+
+import com.clinic.datalayer.entities.Appointment;
+import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.entities.Patient;
+import com.clinic.datalayer.entities.Staff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to protobuf conversion as done by the list RPCs, one operation per
+ * {@code rows} entities. Run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Param("10000")
+    private int rows;
+
+    private final AppointmentServiceImpl appointmentService = new AppointmentServiceImpl();
+    private final AvailableSlotServiceImpl availableSlotService = new AvailableSlotServiceImpl();
+
+    private List<Appointment> appointments;
+    private List<AvailableSlot> slots;
+
+    @Setup
+    public void setUp() {
+        List<Doctor> doctors = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            doctors.add(new Doctor(i, "Dr. Doctor " + i, "Specialization " + (i % 5), "doctor" + i + "@clinic.test", "x", null, null));
+        }
+        Staff staff = new Staff(1L, "Front Desk", "desk@clinic.test", "RECEPTIONIST", "x", null, null);
+        LocalDate firstDay = LocalDate.of(2030, 1, 7);
+
+        appointments = new ArrayList<>(rows);
+        slots = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Doctor doctor = doctors.get(i % doctors.size());
+            LocalDate date = firstDay.plusDays(i / 400);
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * (i % 20));
+
+            AvailableSlot slot = new AvailableSlot((long) i + 1, doctor, date, start, start.plusMinutes(30), "BOOKED", null);
+            Patient patient = new Patient((long) i % 500 + 1, "Patient " + i % 500, "patient" + i % 500 + "@clinic.test",
+                    "555-0100", "x", null);
+            Appointment appointment = new Appointment((long) i + 1, patient, doctor, slot, date, start, start.plusMinutes(30),
+                    "SCHEDULED", "CONSULTATION", i % 3 == 0 ? staff : null, null, null);
+            slot.setAppointment(appointment);
+            appointments.add(appointment);
+            slots.add(slot);
+        }
+    }
+
+    @Benchmark
+    public AppointmentListResponse appointmentsToMessages() {
+        AppointmentListResponse.Builder builder = AppointmentListResponse.newBuilder();
+        appointments.forEach(a -> builder.addAppointments(appointmentService.convertToMessage(a)));
+        return builder.build();
+    }
+
+    @Benchmark
+    public AvailableSlotListResponse slotsToMessages() {
+        AvailableSlotListResponse.Builder builder = AvailableSlotListResponse.newBuilder();
+        slots.forEach(s -> builder.addSlots(availableSlotService.convertToMessage(s)));
+        return builder.build();
+    }
+
+    @Benchmark
+    public byte[] appointmentsToWire() {
+        return appointmentsToMessages().toByteArray();
+    }
+}
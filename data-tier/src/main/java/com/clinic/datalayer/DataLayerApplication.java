@@ -2,8 +2,10 @@ package com.clinic.datalayer;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DataLayerApplication {
     public static void main(String[] args) {
         SpringApplication.run(DataLayerApplication.class, args);
@@ -0,0 +1,113 @@
+package com.clinic.datalayer.auth;
+
+import io.grpc.Context;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on its own small pool so a login or registration storm queues
+ * here instead of occupying every gRPC handler thread. At most {@code auth.password.threads}
+ * hashes run at once (one per core by default) and at most
+ * {@code auth.password.queue-capacity} wait; anything beyond that, or anything
+ * that waited longer than {@code auth.password.max-wait-ms} or whose call was
+ * cancelled meanwhile, fails fast with a {@link RejectedExecutionException}.
+ *
+ * <p>Hashes are made with {@code auth.password.bcrypt-strength}. A successful
+ * check against a hash of any other cost also returns a fresh hash at the
+ * configured cost, so changing the setting migrates users as they log in.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final long maxWaitNanos;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHasher(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                          @Value("${auth.password.threads:0}") int threads,
+                          @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+                          @Value("${auth.password.max-wait-ms:2000}") long maxWaitMillis,
+                          MeterRegistry meterRegistry) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("bcrypt-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("auth.password.queued", executor, pool -> pool.getQueue().size())
+                .description("Password checks and hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Password checks and hashes refused because the hashing pool was saturated")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<String> hash(String plainPassword) {
+        return submit(() -> encoder.encode(plainPassword));
+    }
+
+    public CompletableFuture<Verification> verify(String plainPassword, String hashedPassword) {
+        return submit(() -> {
+            boolean matches = encoder.matches(plainPassword, hashedPassword);
+            String rehashed = matches && cost(hashedPassword) != strength ? encoder.encode(plainPassword) : null;
+            return new Verification(matches, rehashed);
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Context call = Context.current();
+        try {
+            executor.execute(() -> {
+                if (System.nanoTime() - queuedAt > maxWaitNanos || call.isCancelled()) {
+                    rejected.increment();
+                    result.completeExceptionally(new RejectedExecutionException("Password hashing waited too long"));
+                    return;
+                }
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // $2a$10$... : the two digits after the version are the log2 cost
+    private static int cost(String bcryptHash) {
+        return Integer.parseInt(bcryptHash.substring(4, 6));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * {@code rehashed} is set only when the password matched and the stored
+     * hash was made with a different cost than the configured one.
+     */
+    public record Verification(boolean matches, String rehashed) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.clinic.datalayer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@ConditionalOnProperty("grpc.server.executor-threads")
+public class DataSourcePoolConfig {
+
+    /**
+     * Every gRPC handler thread may hold one connection for the length of its
+     * transaction, so the pool gets one per thread plus
+     * {@code datasource.pool.headroom} for schedulers and background work. An
+     * explicit {@code spring.datasource.hikari.maximum-pool-size} still wins.
+     */
+    @Bean
+    static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+                    int threads = environment.getRequiredProperty("grpc.server.executor-threads", Integer.class);
+                    int headroom = environment.getProperty("datasource.pool.headroom", Integer.class, 4);
+                    dataSource.setMaximumPoolSize(threads + headroom);
+                }
+                return bean;
+            }
+        };
+    }
+}
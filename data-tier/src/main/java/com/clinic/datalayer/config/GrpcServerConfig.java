@@ -0,0 +1,99 @@
+package com.clinic.datalayer.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.lognet.springboot.grpc.GRpcGlobalInterceptor;
+import org.lognet.springboot.grpc.GRpcServerBuilderConfigurer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+@Configuration
+public class GrpcServerConfig {
+
+    /**
+     * Continues the caller's trace from the request metadata and keeps the call's
+     * span current while the handler runs, so JDBC spans nest under it.
+     */
+    @Bean
+    @GRpcGlobalInterceptor
+    public ServerInterceptor observationServerInterceptor(ObservationRegistry observationRegistry) {
+        return new ObservationGrpcServerInterceptor(observationRegistry);
+    }
+
+    /**
+     * With {@code spring.threads.virtual.enabled=true} every gRPC call runs on its own
+     * virtual thread, so handlers blocked on JPA no longer hold a platform thread.
+     * At most {@code grpc.server.max-concurrent-handlers} of them run at once (by
+     * default as many as the Hikari pool has connections); the rest park on their
+     * virtual thread for a permit, as calls queue for a fixed pool's threads.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public GRpcServerBuilderConfigurer virtualThreadServerConfigurer(
+            DataSource dataSource,
+            @Value("${grpc.server.max-concurrent-handlers:0}") int maxConcurrentHandlers) throws SQLException {
+        int permits = maxConcurrentHandlers > 0
+                ? maxConcurrentHandlers
+                : dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        Semaphore handlers = new Semaphore(permits);
+        ExecutorService virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-vt-", 0).factory());
+        return new ExecutorServerConfigurer(virtualThreads, task -> virtualThreads.execute(() -> {
+            handlers.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                handlers.release();
+            }
+        }));
+    }
+
+    /**
+     * Caps concurrent gRPC handlers at {@code grpc.server.executor-threads} platform
+     * threads instead of the unbounded default; {@link DataSourcePoolConfig} sizes the
+     * connection pool from the same number.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    @ConditionalOnProperty("grpc.server.executor-threads")
+    public GRpcServerBuilderConfigurer fixedThreadServerConfigurer(@Value("${grpc.server.executor-threads}") int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("grpc-", 0).factory());
+        return new ExecutorServerConfigurer(pool, pool);
+    }
+
+    // The executor is kept out of the context: an Executor bean would replace Boot's applicationTaskExecutor
+    private static class ExecutorServerConfigurer extends GRpcServerBuilderConfigurer implements DisposableBean {
+
+        private final ExecutorService executor;
+        private final Executor callExecutor;
+
+        ExecutorServerConfigurer(ExecutorService executor, Executor callExecutor) {
+            this.executor = executor;
+            this.callExecutor = callExecutor;
+        }
+
+        @Override
+        public void configure(ServerBuilder<?> serverBuilder) {
+            serverBuilder.executor(callExecutor);
+        }
+
+        @Override
+        public void destroy() {
+            executor.close();
+        }
+    }
+}
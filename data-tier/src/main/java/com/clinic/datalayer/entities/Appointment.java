@@ -9,14 +9,27 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_doctor_date_status", columnList = "doctor_id, date, status"),
+        @Index(name = "idx_appointments_patient", columnList = "patient_id")
+})
+@NamedEntityGraph(name = Appointment.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("patient"),
+        @NamedAttributeNode("doctor"),
+        @NamedAttributeNode("slot"),
+        @NamedAttributeNode("staff")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
 
+    /** Everything convertToMessage reads, fetched in the same select as the appointments. */
+    public static final String SUMMARY_GRAPH = "Appointment.summary";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long appointmentId;
 
     @ManyToOne
@@ -0,0 +1,39 @@
+package com.clinic.datalayer.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "appointment_daily_counts")
+@IdClass(AppointmentDailyCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentDailyCount {
+
+    @Id
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Id
+    private LocalDate date;
+
+    @Id
+    private String status;
+
+    @Column(nullable = false)
+    private long appointmentCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long doctorId;
+        private LocalDate date;
+        private String status;
+    }
+}
@@ -8,14 +8,32 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "available_slots")
+@Table(name = "available_slots", indexes = @Index(name = "idx_available_slots_doctor_date_status",
+        columnList = "doctor_id, date, status"))
+@NamedEntityGraph(name = AvailableSlot.SUMMARY_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("doctor"),
+                @NamedAttributeNode(value = "appointment", subgraph = "appointment")
+        },
+        subgraphs = @NamedSubgraph(name = "appointment", attributeNodes = {
+                @NamedAttributeNode("patient"),
+                @NamedAttributeNode("staff")
+        }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AvailableSlot {
 
+    /**
+     * The inverse {@code appointment} side cannot be lazy, so without this graph
+     * every slot row costs one more select for its appointment.
+     */
+    public static final String SUMMARY_GRAPH = "AvailableSlot.summary";
+
+    // A pooled sequence lets Hibernate batch slot inserts; identity columns force one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "available_slots_seq")
+    @SequenceGenerator(name = "available_slots_seq", sequenceName = "available_slots_seq", allocationSize = 50)
     private Long slotId;
 
     @ManyToOne
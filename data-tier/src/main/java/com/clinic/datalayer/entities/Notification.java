@@ -7,7 +7,10 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_recipient", columnList = "recipient_id, recipient_type, status"),
+        @Index(name = "idx_notifications_appointment", columnList = "appointment_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,11 +20,11 @@ public class Notification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long notificationId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "appointment_id")
     private Appointment appointment;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "staff_id")
     private Staff staff;
 
@@ -31,9 +34,16 @@ public class Notification {
     @Column(nullable = false)
     private String recipientType;
 
-    @Column(nullable = false, length = 1000)
+    // Free text for manual notifications; system notifications store template and params instead
+    @Column(length = 1000)
     private String message;
 
+    @Column(length = 64)
+    private String template;
+
+    @Column(length = 1000)
+    private String params;
+
     @Column(nullable = false)
     private String type;
 
@@ -45,8 +55,22 @@ public class Notification {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Outbox delivery state, maintained by NotificationDispatcher
+    @Column(nullable = false)
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
     }
 }
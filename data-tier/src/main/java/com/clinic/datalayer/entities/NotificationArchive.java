@@ -0,0 +1,49 @@
+package com.clinic.datalayer.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_archive", indexes = {
+        @Index(name = "idx_notification_archive_recipient", columnList = "recipient_id, recipient_type")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long archiveId;
+
+    @Column(nullable = false)
+    private Long recipientId;
+
+    @Column(nullable = false)
+    private String recipientType;
+
+    @Column(nullable = false)
+    private Long firstNotificationId;
+
+    @Column(nullable = false)
+    private Long lastNotificationId;
+
+    @Column(nullable = false)
+    private LocalDateTime oldestCreatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime newestCreatedAt;
+
+    @Column(nullable = false)
+    private int notificationCount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // gzip-compressed JSON lines, one ArchivedNotification per line
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,35 @@
+package com.clinic.datalayer.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "notification_unread_counts")
+@IdClass(NotificationUnreadCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationUnreadCount {
+
+    @Id
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Id
+    @Column(name = "recipient_type")
+    private String recipientType;
+
+    @Column(nullable = false)
+    private long unreadCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long recipientId;
+        private String recipientType;
+    }
+}
@@ -0,0 +1,67 @@
+package com.clinic.datalayer.events;
+
+import com.clinic.datalayer.grpc.DoctorChangeEvent;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans doctor changes out to every open WatchDoctorChanges stream so logic-tier
+ * caches can drop stale entries. Events are best effort: a subscriber that
+ * reconnects must assume it missed some and start from a clean cache.
+ */
+@Component
+public class DoctorChangeFeed {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private final Set<ServerCallStreamObserver<DoctorChangeEvent>> subscribers = ConcurrentHashMap.newKeySet();
+
+    public void subscribe(StreamObserver<DoctorChangeEvent> responseObserver) {
+        ServerCallStreamObserver<DoctorChangeEvent> observer = (ServerCallStreamObserver<DoctorChangeEvent>) responseObserver;
+        observer.setOnCancelHandler(() -> subscribers.remove(observer));
+        subscribers.add(observer);
+    }
+
+    /**
+     * Publishes once the surrounding transaction commits, or right away without one.
+     */
+    public void publish(long doctorId, String changeType) {
+        DoctorChangeEvent event = DoctorChangeEvent.newBuilder()
+                .setDoctorId(doctorId)
+                .setChangeType(changeType)
+                .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(DoctorChangeEvent event) {
+        for (ServerCallStreamObserver<DoctorChangeEvent> observer : subscribers) {
+            // Stream observers are not thread-safe; onNext only buffers, so the monitor is held briefly
+            synchronized (observer) {
+                try {
+                    if (!observer.isCancelled()) {
+                        observer.onNext(event);
+                    }
+                } catch (RuntimeException e) {
+                    subscribers.remove(observer);
+                }
+            }
+        }
+    }
+}
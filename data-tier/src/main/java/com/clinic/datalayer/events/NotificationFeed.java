@@ -0,0 +1,319 @@
+package com.clinic.datalayer.events;
+
+import com.clinic.datalayer.entities.Notification;
+import com.clinic.datalayer.grpc.NotificationMessage;
+import com.clinic.datalayer.grpc.SubscribeNotificationsRequest;
+import com.clinic.datalayer.repositories.NotificationRepository;
+import com.clinic.datalayer.templates.NotificationTemplates;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes newly created notifications to open SubscribeNotifications streams,
+ * each filtered to one recipient (or to everything when no recipient is given).
+ * A subscriber that passes the last id it saw first gets what it missed, up to
+ * {@code notifications.feed.max-replay} rows, and then the live feed; anything
+ * published while the catch-up runs is held and sent after it, minus the rows
+ * the catch-up already returned.
+ *
+ * <p>Sends follow gRPC flow control: messages wait in a per-subscriber buffer
+ * until the stream is ready, and catch-up pages are only loaded once the
+ * previous page has gone out. A subscriber that falls more than
+ * {@code notifications.feed.max-buffered} messages behind is closed with
+ * RESOURCE_EXHAUSTED and can resume from its last id.
+ */
+@Component
+public class NotificationFeed {
+
+    private static final int REPLAY_PAGE_SIZE = 200;
+
+    // Subscribers to one recipient are indexed by it, so a publish only visits the streams it concerns
+    private final Map<Recipient, Set<Subscriber>> byRecipient = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allRecipients = ConcurrentHashMap.newKeySet();
+    private final NotificationRepository notificationRepository;
+    private final NotificationTemplates templates;
+    private final int maxReplay;
+    private final int maxBuffered;
+
+    public NotificationFeed(NotificationRepository notificationRepository,
+                            NotificationTemplates templates,
+                            @Value("${notifications.feed.max-replay:1000}") int maxReplay,
+                            @Value("${notifications.feed.max-buffered:500}") int maxBuffered) {
+        this.notificationRepository = notificationRepository;
+        this.templates = templates;
+        this.maxReplay = maxReplay;
+        this.maxBuffered = maxBuffered;
+    }
+
+    public void subscribe(SubscribeNotificationsRequest request, StreamObserver<NotificationMessage> responseObserver) {
+        ServerCallStreamObserver<NotificationMessage> observer = (ServerCallStreamObserver<NotificationMessage>) responseObserver;
+        Subscriber subscriber = new Subscriber(observer, request.getRecipientId(), request.getRecipientType(), request.getAfterId());
+        observer.setOnCancelHandler(subscriber::cancelled);
+        observer.setOnReadyHandler(subscriber::pump);
+        // Registered before the catch-up query so nothing committed in between is lost
+        register(subscriber);
+        subscriber.pump();
+    }
+
+    public boolean hasSubscribers() {
+        return !allRecipients.isEmpty() || !byRecipient.isEmpty();
+    }
+
+    private void register(Subscriber subscriber) {
+        if (subscriber.recipient == null) {
+            allRecipients.add(subscriber);
+            return;
+        }
+        byRecipient.compute(subscriber.recipient, (recipient, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (subscriber.recipient == null) {
+            allRecipients.remove(subscriber);
+            return;
+        }
+        byRecipient.computeIfPresent(subscriber.recipient, (recipient, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * Publishes once the surrounding transaction commits, or right away without one.
+     */
+    public void publish(Notification notification) {
+        publish(List.of(notification));
+    }
+
+    public void publish(List<Notification> notifications) {
+        if (!hasSubscribers() || notifications.isEmpty()) {
+            return;
+        }
+        List<NotificationMessage> messages = notifications.stream().map(this::toMessage).toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(messages);
+                }
+            });
+        } else {
+            send(messages);
+        }
+    }
+
+    private void send(List<NotificationMessage> messages) {
+        for (Subscriber subscriber : allRecipients) {
+            for (NotificationMessage message : messages) {
+                if (!subscriber.offer(message)) {
+                    break;
+                }
+            }
+        }
+        if (byRecipient.isEmpty()) {
+            return;
+        }
+        for (NotificationMessage message : messages) {
+            Set<Subscriber> subscribers = byRecipient.get(new Recipient(message.getRecipientId(), message.getRecipientType()));
+            if (subscribers != null) {
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(message);
+                }
+            }
+        }
+    }
+
+    private List<NotificationMessage> replayPage(Subscriber subscriber, long afterId, int limit) {
+        List<Notification> page = subscriber.recipient != null
+                ? notificationRepository.findByRecipientIdAndRecipientTypeAndNotificationIdGreaterThanOrderByNotificationId(
+                        subscriber.recipient.id(), subscriber.recipient.type(), afterId, Limit.of(limit))
+                : notificationRepository.findByNotificationIdGreaterThanOrderByNotificationId(afterId, Limit.of(limit));
+        return page.stream().map(this::toMessage).toList();
+    }
+
+    /**
+     * The wire form of a notification, with templated text rendered.
+     */
+    public NotificationMessage toMessage(Notification notification) {
+        NotificationMessage.Builder builder = NotificationMessage.newBuilder()
+                .setNotificationId(notification.getNotificationId())
+                .setRecipientId(notification.getRecipientId())
+                .setRecipientType(notification.getRecipientType() != null ? notification.getRecipientType() : "")
+                .setMessage(Objects.requireNonNullElse(templates.render(notification), ""))
+                .setType(notification.getType() != null ? notification.getType() : "")
+                .setStatus(notification.getStatus() != null ? notification.getStatus() : "")
+                .setChannel(notification.getChannel() != null ? notification.getChannel() : "")
+                .setCreatedAt(notification.getCreatedAt() != null ? notification.getCreatedAt().toString() : "");
+        if (notification.getAppointment() != null) {
+            builder.setAppointmentId(notification.getAppointment().getAppointmentId());
+        }
+        if (notification.getStaff() != null) {
+            builder.setStaffId(notification.getStaff().getStaffId());
+        }
+        return builder.build();
+    }
+
+    private record Recipient(long id, String type) {
+    }
+
+    // Stream observers are not thread-safe; every call on one happens under its monitor
+    private final class Subscriber {
+
+        private final ServerCallStreamObserver<NotificationMessage> observer;
+        // Null for a subscriber to every recipient
+        private final Recipient recipient;
+        private final Deque<NotificationMessage> pending = new ArrayDeque<>();
+        // Catch-up state: live events that arrive meanwhile are held; all null once live
+        private List<NotificationMessage> held;
+        private Set<Long> replayed;
+        private long replayCursor;
+        private boolean fetching;
+        private boolean closed;
+
+        Subscriber(ServerCallStreamObserver<NotificationMessage> observer, long recipientId, String recipientType, long afterId) {
+            this.observer = observer;
+            this.recipient = recipientId > 0 ? new Recipient(recipientId, recipientType) : null;
+            if (afterId > 0) {
+                held = new ArrayList<>();
+                replayed = new HashSet<>();
+                replayCursor = afterId;
+            }
+        }
+
+        boolean offer(NotificationMessage message) {
+            synchronized (observer) {
+                if (closed) {
+                    return false;
+                }
+                if (held != null) {
+                    held.add(message);
+                    return withinLimit(held.size());
+                }
+                pending.add(message);
+                return drain();
+            }
+        }
+
+        /**
+         * Sends what the stream will take and, while catching up, loads the next
+         * page once the previous one is out. Runs on the subscribing call and on
+         * every onReady; the query itself runs without the monitor.
+         */
+        void pump() {
+            while (true) {
+                long afterId;
+                int limit;
+                synchronized (observer) {
+                    if (!drain() || held == null || fetching || !pending.isEmpty() || !observer.isReady()) {
+                        return;
+                    }
+                    limit = Math.min(REPLAY_PAGE_SIZE, maxReplay - replayed.size());
+                    if (limit <= 0) {
+                        goLive();
+                        continue;
+                    }
+                    fetching = true;
+                    afterId = replayCursor;
+                }
+                List<NotificationMessage> page;
+                try {
+                    page = replayPage(this, afterId, limit);
+                } catch (RuntimeException e) {
+                    synchronized (observer) {
+                        close(io.grpc.Status.INTERNAL.withDescription("Failed to replay notifications: " + e.getMessage()));
+                    }
+                    return;
+                }
+                synchronized (observer) {
+                    fetching = false;
+                    if (closed) {
+                        return;
+                    }
+                    for (NotificationMessage message : page) {
+                        pending.add(message);
+                        replayed.add(message.getNotificationId());
+                        replayCursor = message.getNotificationId();
+                    }
+                    if (page.size() < limit) {
+                        goLive();
+                    }
+                }
+            }
+        }
+
+        void cancelled() {
+            synchronized (observer) {
+                closed = true;
+                pending.clear();
+                held = null;
+            }
+            unregister(this);
+        }
+
+        private void goLive() {
+            for (NotificationMessage message : held) {
+                if (!replayed.contains(message.getNotificationId())) {
+                    pending.add(message);
+                }
+            }
+            held = null;
+            replayed = null;
+        }
+
+        private boolean drain() {
+            if (closed) {
+                return false;
+            }
+            try {
+                while (!pending.isEmpty() && observer.isReady()) {
+                    observer.onNext(pending.poll());
+                }
+            } catch (RuntimeException e) {
+                close(io.grpc.Status.CANCELLED);
+                return false;
+            }
+            return withinLimit(pending.size());
+        }
+
+        private boolean withinLimit(int buffered) {
+            if (buffered <= maxBuffered) {
+                return true;
+            }
+            close(io.grpc.Status.RESOURCE_EXHAUSTED.withDescription(
+                    "Subscriber fell more than " + maxBuffered + " notifications behind; resume from the last id received"));
+            return false;
+        }
+
+        private void close(io.grpc.Status status) {
+            closed = true;
+            fetching = false;
+            pending.clear();
+            held = null;
+            unregister(this);
+            try {
+                observer.onError(status.asRuntimeException());
+            } catch (RuntimeException e) {
+                // Already cancelled by the client
+            }
+        }
+    }
+}
@@ -2,18 +2,42 @@ package com.clinic.datalayer.grpc;
 
 import com.clinic.datalayer.entities.Appointment;
 import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.entities.Doctor;
 import com.clinic.datalayer.entities.Notification;
+import com.clinic.datalayer.entities.Patient;
+import com.clinic.datalayer.events.NotificationFeed;
+import com.clinic.datalayer.inventory.SlotInventory;
+import com.clinic.datalayer.reports.AppointmentRollup;
+import com.clinic.datalayer.reports.UnreadNotificationCounts;
 import com.clinic.datalayer.repositories.*;
+import com.clinic.datalayer.templates.NotificationTemplates;
+import com.clinic.datalayer.util.KeysetCursor;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @GRpcService
 public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentServiceImplBase {
+    private static final int MAX_BATCH_BOOKINGS = 50;
+    private static final Sort APPOINTMENT_ORDER = KeysetSpecifications.order("date", "startTime", "appointmentId");
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
@@ -32,56 +56,198 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private AppointmentRollup appointmentRollup;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NotificationFeed notificationFeed;
+
+    @Autowired
+    private UnreadNotificationCounts unreadCounts;
+
     @Override
     public void bookAppointment(BookAppointmentRequest request, StreamObserver<AppointmentMessage> responseObserver) {
+        SlotInventory.Reservation reservation = slotInventory.tryReserve(request.getSlotId());
+        if (reservation.status() == SlotInventory.Reservation.Status.NOT_FOUND) {
+            responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Slot not found").asRuntimeException());
+            return;
+        }
+        if (reservation.status() == SlotInventory.Reservation.Status.UNAVAILABLE) {
+            responseObserver.onError(io.grpc.Status.FAILED_PRECONDITION.withDescription("Slot is not available").asRuntimeException());
+            return;
+        }
+
         try {
+            Appointment savedAppointment = transactionTemplate.execute(status -> {
+                var patient = patientRepository.findById(request.getPatientId())
+                    .orElseThrow(() -> io.grpc.Status.NOT_FOUND.withDescription("Patient not found").asRuntimeException());
+                var doctor = doctorRepository.findById(request.getDoctorId())
+                    .orElseThrow(() -> io.grpc.Status.NOT_FOUND.withDescription("Doctor not found").asRuntimeException());
+
+                if (availableSlotRepository.markBookedIfAvailable(request.getSlotId()) == 0) {
+                    throw io.grpc.Status.FAILED_PRECONDITION.withDescription("Slot is not available").asRuntimeException();
+                }
+
+                Appointment appointment = new Appointment();
+                appointment.setPatient(patient);
+                appointment.setDoctor(doctor);
+                appointment.setSlot(availableSlotRepository.getReferenceById(request.getSlotId()));
+                appointment.setDate(reservation.date());
+                appointment.setStartTime(reservation.startTime());
+                appointment.setEndTime(reservation.endTime());
+                appointment.setStatus("SCHEDULED");
+                appointment.setType(request.getType().isEmpty() ? "CONSULTATION" : request.getType());
+
+                Appointment saved = appointmentRepository.save(appointment);
+                appointmentRollup.added(doctor.getDoctorId(), saved.getDate(), saved.getStatus());
+                createNotification(saved, "BOOKING_CONFIRMATION",
+                    NotificationTemplates.BOOKING_CONFIRMATION, saved.getDate(), saved.getStartTime());
+                return saved;
+            });
+            slotInventory.confirm(request.getSlotId());
 
-            var patientOpt = patientRepository.findById(request.getPatientId());
-            if (patientOpt.isEmpty()) {
-                responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Patient not found").asRuntimeException());
-                return;
+            responseObserver.onNext(convertToMessage(savedAppointment));
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == io.grpc.Status.Code.FAILED_PRECONDITION) {
+                slotInventory.invalidateSlot(request.getSlotId());
+            } else {
+                slotInventory.release(request.getSlotId());
             }
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            slotInventory.release(request.getSlotId());
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to book appointment: " + e.getMessage()).asRuntimeException());
+        }
+    }
 
-            var doctorOpt = doctorRepository.findById(request.getDoctorId());
-            if (doctorOpt.isEmpty()) {
-                responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Doctor not found").asRuntimeException());
-                return;
-            }
+    /**
+     * Books every item or none. Slots are claimed in the inventory first so a
+     * conflicting batch fails without touching the database; the database writes
+     * then run in a single transaction.
+     */
+    @Override
+    public void bookAppointments(BookAppointmentsRequest request, StreamObserver<BookAppointmentsResponse> responseObserver) {
+        List<BookAppointmentRequest> items = request.getItemsList();
+        if (items.isEmpty() || items.size() > MAX_BATCH_BOOKINGS) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                .withDescription("A batch must contain between 1 and " + MAX_BATCH_BOOKINGS + " bookings").asRuntimeException());
+            return;
+        }
 
-            var slotOpt = availableSlotRepository.findById(request.getSlotId());
-            if (slotOpt.isEmpty()) {
-                responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Slot not found").asRuntimeException());
-                return;
+        String[] outcomes = new String[items.size()];
+        Set<Long> seenSlots = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!seenSlots.add(items.get(i).getSlotId())) {
+                outcomes[i] = "DUPLICATE_SLOT";
             }
+        }
+        if (anyFailed(outcomes)) {
+            responseObserver.onNext(bookingResults(items, outcomes, null));
+            responseObserver.onCompleted();
+            return;
+        }
 
-            AvailableSlot slot = slotOpt.get();
-            if (!"AVAILABLE".equals(slot.getStatus())) {
-                responseObserver.onError(io.grpc.Status.FAILED_PRECONDITION.withDescription("Slot is not available").asRuntimeException());
-                return;
+        List<SlotInventory.Reservation> reservations = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            SlotInventory.Reservation reservation = slotInventory.tryReserve(items.get(i).getSlotId());
+            reservations.add(reservation);
+            if (reservation.status() == SlotInventory.Reservation.Status.NOT_FOUND) {
+                outcomes[i] = "SLOT_NOT_FOUND";
+            } else if (reservation.status() == SlotInventory.Reservation.Status.UNAVAILABLE) {
+                outcomes[i] = "SLOT_UNAVAILABLE";
             }
+        }
+        if (anyFailed(outcomes)) {
+            releaseReserved(reservations);
+            responseObserver.onNext(bookingResults(items, outcomes, null));
+            responseObserver.onCompleted();
+            return;
+        }
 
-            Appointment appointment = new Appointment();
-            appointment.setPatient(patientOpt.get());
-            appointment.setDoctor(doctorOpt.get());
-            appointment.setSlot(slot);
-            appointment.setDate(slot.getDate());
-            appointment.setStartTime(slot.getStartTime());
-            appointment.setEndTime(slot.getEndTime());
-            appointment.setStatus("SCHEDULED");
-            appointment.setType(request.getType().isEmpty() ? "CONSULTATION" : request.getType());
-
-            Appointment savedAppointment = appointmentRepository.save(appointment);
-
-            slot.setStatus("BOOKED");
-            availableSlotRepository.save(slot);
-
-            createNotification(savedAppointment, "BOOKING_CONFIRMATION", 
-                "Your appointment has been booked for " + savedAppointment.getDate() + " at " + savedAppointment.getStartTime());
-
-            responseObserver.onNext(convertToMessage(savedAppointment));
+        List<Long> slotIds = items.stream().map(BookAppointmentRequest::getSlotId).toList();
+        try {
+            List<Appointment> booked = transactionTemplate.execute(status -> {
+                Map<Long, Patient> patients = patientRepository.findAllById(
+                        items.stream().map(BookAppointmentRequest::getPatientId).distinct().toList()).stream()
+                    .collect(Collectors.toMap(Patient::getPatientId, Function.identity()));
+                Map<Long, Doctor> doctors = doctorRepository.findAllById(
+                        items.stream().map(BookAppointmentRequest::getDoctorId).distinct().toList()).stream()
+                    .collect(Collectors.toMap(Doctor::getDoctorId, Function.identity()));
+                for (int i = 0; i < items.size(); i++) {
+                    if (!patients.containsKey(items.get(i).getPatientId())) {
+                        outcomes[i] = "PATIENT_NOT_FOUND";
+                    } else if (!doctors.containsKey(items.get(i).getDoctorId())) {
+                        outcomes[i] = "DOCTOR_NOT_FOUND";
+                    }
+                }
+                if (anyFailed(outcomes)) {
+                    return null;
+                }
+
+                if (availableSlotRepository.markAllBookedIfAvailable(slotIds) < slotIds.size()) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+
+                List<Appointment> appointments = new ArrayList<>(items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    BookAppointmentRequest item = items.get(i);
+                    SlotInventory.Reservation reservation = reservations.get(i);
+                    Appointment appointment = new Appointment();
+                    appointment.setPatient(patients.get(item.getPatientId()));
+                    appointment.setDoctor(doctors.get(item.getDoctorId()));
+                    appointment.setSlot(availableSlotRepository.getReferenceById(item.getSlotId()));
+                    appointment.setDate(reservation.date());
+                    appointment.setStartTime(reservation.startTime());
+                    appointment.setEndTime(reservation.endTime());
+                    appointment.setStatus("SCHEDULED");
+                    appointment.setType(item.getType().isEmpty() ? "CONSULTATION" : item.getType());
+                    appointments.add(appointment);
+                }
+                // Flushed here: the confirmations below go in over JDBC and reference these rows
+                List<Appointment> saved = appointmentRepository.saveAllAndFlush(appointments);
+
+                saved.stream()
+                    .collect(Collectors.groupingBy(a -> a.getDoctor().getDoctorId(),
+                        Collectors.groupingBy(Appointment::getDate, Collectors.counting())))
+                    .forEach((doctorId, byDate) -> byDate.forEach((date, count) ->
+                        appointmentRollup.added(doctorId, date, "SCHEDULED", count)));
+
+                List<Notification> confirmations = saved.stream()
+                    .map(a -> buildNotification(a, "BOOKING_CONFIRMATION",
+                        NotificationTemplates.BOOKING_CONFIRMATION, a.getDate(), a.getStartTime()))
+                    .toList();
+                notificationRepository.insertAll(confirmations);
+                unreadCounts.added(confirmations);
+                // The batch insert does not hand back ids, so read the rows back only when someone is listening
+                if (notificationFeed.hasSubscribers()) {
+                    notificationFeed.publish(notificationRepository.findByAppointmentAppointmentIdIn(
+                        saved.stream().map(Appointment::getAppointmentId).toList()));
+                }
+                return saved;
+            });
+
+            if (booked == null) {
+                if (!anyFailed(outcomes)) {
+                    markUnavailableSlots(slotIds, outcomes);
+                }
+                releaseReserved(reservations);
+                responseObserver.onNext(bookingResults(items, outcomes, null));
+            } else {
+                slotIds.forEach(slotInventory::confirm);
+                responseObserver.onNext(bookingResults(items, outcomes, booked.stream().map(this::convertToMessage).toList()));
+            }
             responseObserver.onCompleted();
         } catch (Exception e) {
-            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to book appointment: " + e.getMessage()).asRuntimeException());
+            releaseReserved(reservations);
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to book appointments: " + e.getMessage()).asRuntimeException());
         }
     }
 
@@ -106,6 +272,14 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamAllAppointments(Empty request, StreamObserver<AppointmentMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            appointmentRepository::findByAppointmentIdGreaterThanOrderByAppointmentId,
+            Appointment::getAppointmentId,
+            this::convertToMessage);
+    }
+
     @Override
     public void getPatientAppointments(IdRequest request, StreamObserver<AppointmentListResponse> responseObserver) {
         var appointments = appointmentRepository.findByPatientPatientId(request.getId());
@@ -115,6 +289,14 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamPatientAppointments(IdRequest request, StreamObserver<AppointmentMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            (afterId, limit) -> appointmentRepository.findByPatientPatientIdAndAppointmentIdGreaterThanOrderByAppointmentId(request.getId(), afterId, limit),
+            Appointment::getAppointmentId,
+            this::convertToMessage);
+    }
+
     @Override
     public void getDoctorAppointments(IdRequest request, StreamObserver<AppointmentListResponse> responseObserver) {
         var appointments = appointmentRepository.findByDoctorDoctorId(request.getId());
@@ -124,6 +306,14 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamDoctorAppointments(IdRequest request, StreamObserver<AppointmentMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            (afterId, limit) -> appointmentRepository.findByDoctorDoctorIdAndAppointmentIdGreaterThanOrderByAppointmentId(request.getId(), afterId, limit),
+            Appointment::getAppointmentId,
+            this::convertToMessage);
+    }
+
     @Override
     public void getDoctorDailySchedule(AppointmentFilterRequest request, StreamObserver<AppointmentListResponse> responseObserver) {
         LocalDate date = request.getDate().isEmpty() ? LocalDate.now() : LocalDate.parse(request.getDate());
@@ -134,97 +324,167 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamDoctorDailySchedule(AppointmentFilterRequest request, StreamObserver<AppointmentMessage> responseObserver) {
+        LocalDate date = request.getDate().isEmpty() ? LocalDate.now() : LocalDate.parse(request.getDate());
+        KeysetStreamer.stream(responseObserver,
+            (afterId, limit) -> appointmentRepository.findActiveDoctorAppointmentsByDate(request.getDoctorId(), date, afterId, limit),
+            Appointment::getAppointmentId,
+            this::convertToMessage);
+    }
+
     @Override
     public void getAppointmentsByFilter(AppointmentFilterRequest request, StreamObserver<AppointmentListResponse> responseObserver) {
-        List<Appointment> appointments;
-        if (request.getPatientId() > 0) {
-            appointments = appointmentRepository.findByPatientPatientId(request.getPatientId());
-        } else if (request.getDoctorId() > 0) {
-            appointments = appointmentRepository.findByDoctorDoctorId(request.getDoctorId());
-        } else if (!request.getStatus().isEmpty()) {
-            appointments = appointmentRepository.findByStatus(request.getStatus());
-        } else {
-            appointments = appointmentRepository.findAll();
+        Specification<Appointment> filter;
+        try {
+            filter = toSpecification(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
         }
         AppointmentListResponse.Builder builder = AppointmentListResponse.newBuilder();
-        appointments.forEach(a -> builder.addAppointments(convertToMessage(a)));
+        if (KeysetPage.requested(request.getLimit(), request.getCursor())) {
+            KeysetPage<Appointment> page = KeysetPage.fetch(appointmentRepository, filter, APPOINTMENT_ORDER, request.getLimit(),
+                a -> new KeysetCursor(a.getDate(), a.getStartTime(), a.getAppointmentId()),
+                "patient", "doctor", "slot", "staff");
+            builder.setNextCursor(page.nextCursor());
+            page.rows().forEach(a -> builder.addAppointments(convertToMessage(a)));
+        } else {
+            appointmentRepository.findAll(filter, APPOINTMENT_ORDER).forEach(a -> builder.addAppointments(convertToMessage(a)));
+        }
         responseObserver.onNext(builder.build());
         responseObserver.onCompleted();
     }
 
+    /**
+     * Every supplied field of the request becomes one predicate of a single query;
+     * {@code date} is shorthand for a one-day {@code dateFrom}/{@code dateTo} range.
+     */
+    private static Specification<Appointment> toSpecification(AppointmentFilterRequest request) {
+        Set<String> statuses = new LinkedHashSet<>(request.getStatusesList());
+        if (!request.getStatus().isEmpty()) {
+            statuses.add(request.getStatus());
+        }
+        String from = !request.getDateFrom().isEmpty() ? request.getDateFrom() : request.getDate();
+        String to = !request.getDateTo().isEmpty() ? request.getDateTo() : request.getDate();
+
+        Specification<Appointment> filter = Specification.where(AppointmentSpecifications.hasPatient(request.getPatientId()))
+            .and(AppointmentSpecifications.hasDoctor(request.getDoctorId()))
+            .and(AppointmentSpecifications.hasStaff(request.getStaffId()))
+            .and(AppointmentSpecifications.statusIn(statuses))
+            .and(AppointmentSpecifications.dateBetween(
+                from.isEmpty() ? null : LocalDate.parse(from),
+                to.isEmpty() ? null : LocalDate.parse(to)));
+        if (!request.getCursor().isEmpty()) {
+            KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+            filter = filter.and(KeysetSpecifications.after(cursor, "date", "startTime", "appointmentId"));
+        }
+        return filter;
+    }
+
     @Override
     public void cancelAppointment(CancelAppointmentRequest request, StreamObserver<AppointmentMessage> responseObserver) {
-        appointmentRepository.findById(request.getAppointmentId())
-            .ifPresentOrElse(
-                appointment -> {
-                    String newStatus = "CANCELLED_BY_" + request.getCancelledBy().toUpperCase();
-                    appointment.setStatus(newStatus);
-                    appointment.setCancellationReason(request.getReason());
-                    
-                    if (appointment.getSlot() != null) {
-                        AvailableSlot slot = appointment.getSlot();
-                        slot.setStatus("AVAILABLE");
-                        availableSlotRepository.save(slot);
-                    }
-                    
-                    Appointment savedAppointment = appointmentRepository.save(appointment);
-                    createNotification(savedAppointment, "CANCELLATION", "Appointment cancelled. Reason: " + request.getReason());
-                    
-                    responseObserver.onNext(convertToMessage(savedAppointment));
-                    responseObserver.onCompleted();
-                },
-                () -> responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Appointment not found").asRuntimeException())
-            );
+        try {
+            Appointment savedAppointment = transactionTemplate.execute(status -> {
+                Appointment appointment = findAppointment(request.getAppointmentId());
+                String previousStatus = appointment.getStatus();
+                String newStatus = "CANCELLED_BY_" + request.getCancelledBy().toUpperCase();
+                appointment.setStatus(newStatus);
+                appointment.setCancellationReason(request.getReason());
+
+                if (appointment.getSlot() != null) {
+                    AvailableSlot slot = appointment.getSlot();
+                    slot.setStatus("AVAILABLE");
+                    availableSlotRepository.save(slot);
+                }
+
+                Appointment saved = appointmentRepository.save(appointment);
+                appointmentRollup.statusChanged(saved.getDoctor().getDoctorId(), saved.getDate(), previousStatus, newStatus);
+                createNotification(saved, "CANCELLATION", NotificationTemplates.CANCELLATION, request.getReason());
+                return saved;
+            });
+            if (savedAppointment.getSlot() != null) {
+                slotInventory.release(savedAppointment.getSlot().getSlotId());
+            }
+
+            responseObserver.onNext(convertToMessage(savedAppointment));
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to cancel appointment: " + e.getMessage()).asRuntimeException());
+        }
     }
 
     @Override
     public void updateAppointmentStatus(UpdateAppointmentStatusRequest request, StreamObserver<AppointmentMessage> responseObserver) {
-        appointmentRepository.findById(request.getAppointmentId())
-            .ifPresentOrElse(
-                appointment -> {
-                    appointment.setStatus(request.getStatus());
-                    if (request.getStaffId() > 0) {
-                        staffRepository.findById(request.getStaffId()).ifPresent(appointment::setStaff);
-                    }
-                    Appointment savedAppointment = appointmentRepository.save(appointment);
-                    createNotification(savedAppointment, "UPDATE", "Appointment status updated to: " + request.getStatus());
-                    responseObserver.onNext(convertToMessage(savedAppointment));
-                    responseObserver.onCompleted();
-                },
-                () -> responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Appointment not found").asRuntimeException())
-            );
+        try {
+            Appointment savedAppointment = transactionTemplate.execute(status -> {
+                Appointment appointment = findAppointment(request.getAppointmentId());
+                String previousStatus = appointment.getStatus();
+                appointment.setStatus(request.getStatus());
+                if (request.getStaffId() > 0) {
+                    staffRepository.findById(request.getStaffId()).ifPresent(appointment::setStaff);
+                }
+                Appointment saved = appointmentRepository.save(appointment);
+                appointmentRollup.statusChanged(saved.getDoctor().getDoctorId(), saved.getDate(), previousStatus, saved.getStatus());
+                createNotification(saved, "UPDATE", NotificationTemplates.STATUS_UPDATE, request.getStatus());
+                return saved;
+            });
+            responseObserver.onNext(convertToMessage(savedAppointment));
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to update appointment status: " + e.getMessage()).asRuntimeException());
+        }
     }
 
     @Override
     public void updateAppointment(AppointmentMessage request, StreamObserver<AppointmentMessage> responseObserver) {
-        appointmentRepository.findById(request.getAppointmentId())
-            .ifPresentOrElse(
-                appointment -> {
-                    if (!request.getStatus().isEmpty()) appointment.setStatus(request.getStatus());
-                    if (!request.getType().isEmpty()) appointment.setType(request.getType());
-                    Appointment savedAppointment = appointmentRepository.save(appointment);
-                    responseObserver.onNext(convertToMessage(savedAppointment));
-                    responseObserver.onCompleted();
-                },
-                () -> responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Appointment not found").asRuntimeException())
-            );
+        try {
+            Appointment savedAppointment = transactionTemplate.execute(status -> {
+                Appointment appointment = findAppointment(request.getAppointmentId());
+                String previousStatus = appointment.getStatus();
+                if (!request.getStatus().isEmpty()) appointment.setStatus(request.getStatus());
+                if (!request.getType().isEmpty()) appointment.setType(request.getType());
+                Appointment saved = appointmentRepository.save(appointment);
+                appointmentRollup.statusChanged(saved.getDoctor().getDoctorId(), saved.getDate(), previousStatus, saved.getStatus());
+                return saved;
+            });
+            responseObserver.onNext(convertToMessage(savedAppointment));
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to update appointment: " + e.getMessage()).asRuntimeException());
+        }
     }
 
     @Override
     public void reassignAppointment(AppointmentMessage request, StreamObserver<AppointmentMessage> responseObserver) {
-        appointmentRepository.findById(request.getAppointmentId())
-            .ifPresentOrElse(
-                appointment -> {
-                    if (request.getDoctorId() > 0) {
-                        doctorRepository.findById(request.getDoctorId()).ifPresent(appointment::setDoctor);
-                    }
-                    Appointment savedAppointment = appointmentRepository.save(appointment);
-                    createNotification(savedAppointment, "UPDATE", "Appointment reassigned to Dr. " + savedAppointment.getDoctor().getName());
-                    responseObserver.onNext(convertToMessage(savedAppointment));
-                    responseObserver.onCompleted();
-                },
-                () -> responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Appointment not found").asRuntimeException())
-            );
+        try {
+            Appointment savedAppointment = transactionTemplate.execute(status -> {
+                Appointment appointment = findAppointment(request.getAppointmentId());
+                Long previousDoctorId = appointment.getDoctor().getDoctorId();
+                if (request.getDoctorId() > 0) {
+                    doctorRepository.findById(request.getDoctorId()).ifPresent(appointment::setDoctor);
+                }
+                Appointment saved = appointmentRepository.save(appointment);
+                if (!previousDoctorId.equals(saved.getDoctor().getDoctorId())) {
+                    appointmentRollup.removed(previousDoctorId, saved.getDate(), saved.getStatus());
+                    appointmentRollup.added(saved.getDoctor().getDoctorId(), saved.getDate(), saved.getStatus());
+                }
+                createNotification(saved, "UPDATE", NotificationTemplates.REASSIGNMENT, saved.getDoctor().getName());
+                return saved;
+            });
+            responseObserver.onNext(convertToMessage(savedAppointment));
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        } catch (Exception e) {
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to reassign appointment: " + e.getMessage()).asRuntimeException());
+        }
     }
 
     @Override
@@ -236,10 +496,24 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamPendingCancellations(Empty request, StreamObserver<AppointmentMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            appointmentRepository::findPendingCancellations,
+            Appointment::getAppointmentId,
+            this::convertToMessage);
+    }
+
     @Override
     public void deleteAppointment(IdRequest request, StreamObserver<StatusResponse> responseObserver) {
-        if (appointmentRepository.existsById(request.getId())) {
-            appointmentRepository.deleteById(request.getId());
+        Boolean deleted = transactionTemplate.execute(status -> appointmentRepository.findById(request.getId())
+            .map(appointment -> {
+                appointmentRepository.delete(appointment);
+                appointmentRollup.removed(appointment.getDoctor().getDoctorId(), appointment.getDate(), appointment.getStatus());
+                return true;
+            })
+            .orElse(false));
+        if (Boolean.TRUE.equals(deleted)) {
             responseObserver.onNext(StatusResponse.newBuilder().setSuccess(true).setMessage("Appointment deleted").build());
         } else {
             responseObserver.onNext(StatusResponse.newBuilder().setSuccess(false).setMessage("Appointment not found").build());
@@ -247,19 +521,70 @@ public class AppointmentServiceImpl extends AppointmentServiceGrpc.AppointmentSe
         responseObserver.onCompleted();
     }
 
-    private void createNotification(Appointment appointment, String type, String message) {
+    private Appointment findAppointment(long appointmentId) {
+        return appointmentRepository.findById(appointmentId)
+            .orElseThrow(() -> io.grpc.Status.NOT_FOUND.withDescription("Appointment not found").asRuntimeException());
+    }
+
+    // The inventory thought these slots were free but the database disagreed; drop them from the inventory
+    private void markUnavailableSlots(List<Long> slotIds, String[] outcomes) {
+        Map<Long, String> slotStatus = availableSlotRepository.findAllById(slotIds).stream()
+            .collect(Collectors.toMap(AvailableSlot::getSlotId, AvailableSlot::getStatus));
+        for (int i = 0; i < slotIds.size(); i++) {
+            if (!"AVAILABLE".equals(slotStatus.get(slotIds.get(i)))) {
+                outcomes[i] = "SLOT_UNAVAILABLE";
+                slotInventory.invalidateSlot(slotIds.get(i));
+            }
+        }
+    }
+
+    private void releaseReserved(List<SlotInventory.Reservation> reservations) {
+        reservations.stream()
+            .filter(r -> r.status() == SlotInventory.Reservation.Status.RESERVED)
+            .forEach(r -> slotInventory.release(r.slotId()));
+    }
+
+    private static boolean anyFailed(String[] outcomes) {
+        return Arrays.stream(outcomes).anyMatch(Objects::nonNull);
+    }
+
+    private static BookAppointmentsResponse bookingResults(List<BookAppointmentRequest> items, String[] outcomes,
+                                                           List<AppointmentMessage> booked) {
+        BookAppointmentsResponse.Builder builder = BookAppointmentsResponse.newBuilder().setSuccess(booked != null);
+        for (int i = 0; i < items.size(); i++) {
+            BookAppointmentResult.Builder result = BookAppointmentResult.newBuilder().setSlotId(items.get(i).getSlotId());
+            if (booked != null) {
+                result.setStatus("BOOKED").setAppointment(booked.get(i));
+            } else {
+                result.setStatus(outcomes[i] != null ? outcomes[i] : "NOT_BOOKED");
+            }
+            builder.addResults(result);
+        }
+        return builder.build();
+    }
+
+    private void createNotification(Appointment appointment, String type, String template, Object... params) {
+        Notification saved = notificationRepository.save(buildNotification(appointment, type, template, params));
+        unreadCounts.added(saved);
+        notificationFeed.publish(saved);
+    }
+
+    // Only the template code and its parameters are stored; the text is rendered when read
+    private static Notification buildNotification(Appointment appointment, String type, String template, Object... params) {
         Notification notification = new Notification();
         notification.setAppointment(appointment);
         notification.setRecipientId(appointment.getPatient().getPatientId());
         notification.setRecipientType("PATIENT");
-        notification.setMessage(message);
+        notification.setTemplate(template);
+        notification.setParams(NotificationTemplates.params(params));
         notification.setType(type);
         notification.setStatus("PENDING");
         notification.setChannel("EMAIL");
-        notificationRepository.save(notification);
+        return notification;
     }
 
-    private AppointmentMessage convertToMessage(Appointment appointment) {
+    // Package-private for the JMH benchmarks in src/jmh/java
+    AppointmentMessage convertToMessage(Appointment appointment) {
         AppointmentMessage.Builder builder = AppointmentMessage.newBuilder()
             .setAppointmentId(appointment.getAppointmentId())
             .setDate(appointment.getDate().toString())
@@ -1,19 +1,33 @@
 package com.clinic.datalayer.grpc;
 
+import com.clinic.datalayer.auth.PasswordHasher;
 import com.clinic.datalayer.entities.Doctor;
 import com.clinic.datalayer.entities.Patient;
 import com.clinic.datalayer.entities.Staff;
+import com.clinic.datalayer.events.DoctorChangeFeed;
 import com.clinic.datalayer.repositories.DoctorRepository;
 import com.clinic.datalayer.repositories.PatientRepository;
 import com.clinic.datalayer.repositories.StaffRepository;
-import com.clinic.datalayer.util.PasswordUtil;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 @GRpcService
 public class AuthServiceImpl extends AuthServiceGrpc.AuthServiceImplBase {
 
+    private static final String INVALID_CREDENTIALS = "Invalid email or password";
+    private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     @Autowired
     private PatientRepository patientRepository;
 
@@ -23,162 +37,182 @@ public class AuthServiceImpl extends AuthServiceGrpc.AuthServiceImplBase {
     @Autowired
     private StaffRepository staffRepository;
 
-    @Override
-    public void login(LoginRequest request, StreamObserver<LoginResponse> responseObserver) {
-        String email = request.getEmail();
-        String password = request.getPassword();
-        String userType = request.getUserType();
+    @Autowired
+    private DoctorChangeFeed doctorChangeFeed;
 
-        LoginResponse.Builder responseBuilder = LoginResponse.newBuilder();
+    @Autowired
+    private PasswordHasher passwordHasher;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Continuations run here so the rehash UPDATE and the account INSERT never hold a hashing thread
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor continuationExecutor;
+
+    @Override
+    public void login(LoginRequest request, StreamObserver<LoginResponse> responseObserver) {
+        Optional<Account> account;
         try {
-            switch (userType.toUpperCase()) {
-                case "PATIENT":
-                    patientRepository.findByEmail(email)
-                            .ifPresentOrElse(
-                                    patient -> {
-                                        if (PasswordUtil.verifyPassword(password, patient.getPassword())) {
-                                            responseBuilder.setSuccess(true)
-                                                    .setMessage("Login successful")
-                                                    .setUserId(patient.getPatientId())
-                                                    .setUserType("PATIENT")
-                                                    .setName(patient.getName())
-                                                    .setToken(generateToken(patient.getPatientId(), "PATIENT"));
-                                        } else {
-                                            responseBuilder.setSuccess(false)
-                                                    .setMessage("Invalid email or password");
-                                        }
-                                    },
-                                    () -> {
-                                        responseBuilder.setSuccess(false)
-                                                .setMessage("Invalid email or password");
-                                    }
-                            );
-                    break;
-
-                case "DOCTOR":
-                    doctorRepository.findByEmail(email)
-                            .ifPresentOrElse(
-                                    doctor -> {
-                                        if (PasswordUtil.verifyPassword(password, doctor.getPassword())) {
-                                            responseBuilder.setSuccess(true)
-                                                    .setMessage("Login successful")
-                                                    .setUserId(doctor.getDoctorId())
-                                                    .setUserType("DOCTOR")
-                                                    .setName(doctor.getName())
-                                                    .setToken(generateToken(doctor.getDoctorId(), "DOCTOR"));
-                                        } else {
-                                            responseBuilder.setSuccess(false)
-                                                    .setMessage("Invalid email or password");
-                                        }
-                                    },
-                                    () -> {
-                                        responseBuilder.setSuccess(false)
-                                                .setMessage("Invalid email or password");
-                                    }
-                            );
-                    break;
-
-                case "STAFF":
-                    staffRepository.findByEmail(email)
-                            .ifPresentOrElse(
-                                    staff -> {
-                                        if (PasswordUtil.verifyPassword(password, staff.getPassword())) {
-                                            responseBuilder.setSuccess(true)
-                                                    .setMessage("Login successful")
-                                                    .setUserId(staff.getStaffId())
-                                                    .setUserType("STAFF")
-                                                    .setName(staff.getName())
-                                                    .setToken(generateToken(staff.getStaffId(), "STAFF"));
-                                        } else {
-                                            responseBuilder.setSuccess(false)
-                                                    .setMessage("Invalid email or password");
-                                        }
-                                    },
-                                    () -> {
-                                        responseBuilder.setSuccess(false)
-                                                .setMessage("Invalid email or password");
-                                    }
-                            );
-                    break;
-
-                default:
-                    responseBuilder.setSuccess(false)
-                            .setMessage("Invalid user type");
-            }
+            account = findAccount(request.getUserType().toUpperCase(), request.getEmail());
+        } catch (IllegalArgumentException e) {
+            reply(responseObserver, failure("Invalid user type"));
+            return;
         } catch (Exception e) {
-            responseBuilder.setSuccess(false)
-                    .setMessage("Login failed: " + e.getMessage());
+            reply(responseObserver, failure("Login failed: " + e.getMessage()));
+            return;
         }
 
-        responseObserver.onNext(responseBuilder.build());
-        responseObserver.onCompleted();
+        if (account.isEmpty()) {
+            reply(responseObserver, failure(INVALID_CREDENTIALS));
+            return;
+        }
+
+        Account found = account.get();
+        // The handler thread is released here; the reply is sent once the hash has been checked
+        passwordHasher.verify(request.getPassword(), found.passwordHash()).whenCompleteAsync((verification, error) -> {
+            if (error instanceof RejectedExecutionException) {
+                responseObserver.onError(io.grpc.Status.RESOURCE_EXHAUSTED
+                        .withDescription("Too many logins in progress, retry shortly")
+                        .asRuntimeException());
+                return;
+            }
+            if (error != null) {
+                reply(responseObserver, failure("Login failed: " + error.getMessage()));
+                return;
+            }
+            if (!verification.matches()) {
+                reply(responseObserver, failure(INVALID_CREDENTIALS));
+                return;
+            }
+            if (verification.rehashed() != null) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> found.rehash().accept(verification.rehashed()));
+                } catch (RuntimeException e) {
+                    logger.warn("Could not store rehashed password for {} {}", found.userType(), found.id(), e);
+                }
+            }
+            reply(responseObserver, LoginResponse.newBuilder()
+                    .setSuccess(true)
+                    .setMessage("Login successful")
+                    .setUserId(found.id())
+                    .setUserType(found.userType())
+                    .setName(found.name())
+                    .setToken(generateToken(found.id(), found.userType()))
+                    .build());
+        }, continuationExecutor);
+    }
+
+    private Optional<Account> findAccount(String userType, String email) {
+        return switch (userType) {
+            case "PATIENT" -> patientRepository.findByEmail(email)
+                    .map(patient -> new Account(patient.getPatientId(), userType, patient.getName(), patient.getPassword(),
+                            hash -> patientRepository.updatePassword(patient.getPatientId(), hash)));
+            case "DOCTOR" -> doctorRepository.findByEmail(email)
+                    .map(doctor -> new Account(doctor.getDoctorId(), userType, doctor.getName(), doctor.getPassword(),
+                            hash -> doctorRepository.updatePassword(doctor.getDoctorId(), hash)));
+            case "STAFF" -> staffRepository.findByEmail(email)
+                    .map(staff -> new Account(staff.getStaffId(), userType, staff.getName(), staff.getPassword(),
+                            hash -> staffRepository.updatePassword(staff.getStaffId(), hash)));
+            default -> throw new IllegalArgumentException("Invalid user type");
+        };
+    }
+
+    private static LoginResponse failure(String message) {
+        return LoginResponse.newBuilder()
+                .setSuccess(false)
+                .setMessage(message)
+                .build();
     }
 
     @Override
     public void register(RegisterRequest request, StreamObserver<StatusResponse> responseObserver) {
-        StatusResponse.Builder responseBuilder = StatusResponse.newBuilder();
-
+        String userType = request.getUserType().toUpperCase();
+        boolean registered;
         try {
-            switch (request.getUserType().toUpperCase()) {
-                case "PATIENT":
-                    if (patientRepository.existsByEmail(request.getEmail())) {
-                        responseBuilder.setSuccess(false)
-                                .setMessage("Email already registered");
-                    } else {
-                        Patient patient = new Patient();
-                        patient.setName(request.getName());
-                        patient.setEmail(request.getEmail());
-                        patient.setPhone(request.getPhone());
-                        patient.setPassword(PasswordUtil.hashPassword(request.getPassword()));
-                        patientRepository.save(patient);
-                        responseBuilder.setSuccess(true)
-                                .setMessage("Patient registered successfully");
-                    }
-                    break;
-
-                case "DOCTOR":
-                    if (doctorRepository.existsByEmail(request.getEmail())) {
-                        responseBuilder.setSuccess(false)
-                                .setMessage("Email already registered");
-                    } else {
-                        Doctor doctor = new Doctor();
-                        doctor.setName(request.getName());
-                        doctor.setEmail(request.getEmail());
-                        doctor.setSpecialization(request.getSpecialization());
-                        doctor.setPassword(PasswordUtil.hashPassword(request.getPassword()));
-                        doctorRepository.save(doctor);
-                        responseBuilder.setSuccess(true)
-                                .setMessage("Doctor registered successfully");
-                    }
-                    break;
-
-                case "STAFF":
-                    if (staffRepository.existsByEmail(request.getEmail())) {
-                        responseBuilder.setSuccess(false)
-                                .setMessage("Email already registered");
-                    } else {
-                        Staff staff = new Staff();
-                        staff.setName(request.getName());
-                        staff.setEmail(request.getEmail());
-                        staff.setRole(request.getRole());
-                        staff.setPassword(PasswordUtil.hashPassword(request.getPassword()));
-                        staffRepository.save(staff);
-                        responseBuilder.setSuccess(true)
-                                .setMessage("Staff registered successfully");
-                    }
-                    break;
-
-                default:
-                    responseBuilder.setSuccess(false)
-                            .setMessage("Invalid user type");
-            }
+            registered = switch (userType) {
+                case "PATIENT" -> patientRepository.existsByEmail(request.getEmail());
+                case "DOCTOR" -> doctorRepository.existsByEmail(request.getEmail());
+                case "STAFF" -> staffRepository.existsByEmail(request.getEmail());
+                default -> throw new IllegalArgumentException("Invalid user type");
+            };
+        } catch (IllegalArgumentException e) {
+            reply(responseObserver, status(false, "Invalid user type"));
+            return;
         } catch (Exception e) {
-            responseBuilder.setSuccess(false)
-                    .setMessage("Registration failed: " + e.getMessage());
+            reply(responseObserver, status(false, "Registration failed: " + e.getMessage()));
+            return;
+        }
+
+        if (registered) {
+            reply(responseObserver, status(false, "Email already registered"));
+            return;
         }
 
-        responseObserver.onNext(responseBuilder.build());
+        // As in login, the account is saved and the reply sent after hashing, off the hashing pool
+        passwordHasher.hash(request.getPassword()).whenCompleteAsync((passwordHash, error) -> {
+            if (error instanceof RejectedExecutionException) {
+                responseObserver.onError(io.grpc.Status.RESOURCE_EXHAUSTED
+                        .withDescription("Too many registrations in progress, retry shortly")
+                        .asRuntimeException());
+                return;
+            }
+            if (error != null) {
+                reply(responseObserver, status(false, "Registration failed: " + error.getMessage()));
+                return;
+            }
+            try {
+                reply(responseObserver, status(true, save(request, userType, passwordHash)));
+            } catch (Exception e) {
+                reply(responseObserver, status(false, "Registration failed: " + e.getMessage()));
+            }
+        }, continuationExecutor);
+    }
+
+    private String save(RegisterRequest request, String userType, String passwordHash) {
+        switch (userType) {
+            case "PATIENT" -> {
+                Patient patient = new Patient();
+                patient.setName(request.getName());
+                patient.setEmail(request.getEmail());
+                patient.setPhone(request.getPhone());
+                patient.setPassword(passwordHash);
+                patientRepository.save(patient);
+                return "Patient registered successfully";
+            }
+            case "DOCTOR" -> {
+                Doctor doctor = new Doctor();
+                doctor.setName(request.getName());
+                doctor.setEmail(request.getEmail());
+                doctor.setSpecialization(request.getSpecialization());
+                doctor.setPassword(passwordHash);
+                doctorRepository.save(doctor);
+                doctorChangeFeed.publish(doctor.getDoctorId(), DoctorChangeFeed.CREATED);
+                return "Doctor registered successfully";
+            }
+            case "STAFF" -> {
+                Staff staff = new Staff();
+                staff.setName(request.getName());
+                staff.setEmail(request.getEmail());
+                staff.setRole(request.getRole());
+                staff.setPassword(passwordHash);
+                staffRepository.save(staff);
+                return "Staff registered successfully";
+            }
+            default -> throw new IllegalArgumentException("Invalid user type");
+        }
+    }
+
+    private static StatusResponse status(boolean success, String message) {
+        return StatusResponse.newBuilder()
+                .setSuccess(success)
+                .setMessage(message)
+                .build();
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T response) {
+        responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
 
@@ -194,4 +228,7 @@ public class AuthServiceImpl extends AuthServiceGrpc.AuthServiceImplBase {
     private String generateToken(Long userId, String userType) {
         return userType + "_" + userId + "_" + System.currentTimeMillis();
     }
+
+    private record Account(Long id, String userType, String name, String passwordHash, Consumer<String> rehash) {
+    }
 }
\ No newline at end of file
@@ -1,27 +1,48 @@
 package com.clinic.datalayer.grpc;
 
 import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.inventory.SlotGenerator;
+import com.clinic.datalayer.inventory.SlotInventory;
 import com.clinic.datalayer.repositories.AvailableSlotRepository;
+import com.clinic.datalayer.repositories.AvailableSlotSpecifications;
 import com.clinic.datalayer.repositories.DoctorRepository;
+import com.clinic.datalayer.repositories.KeysetSpecifications;
+import com.clinic.datalayer.util.KeysetCursor;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 
 @GRpcService
 public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.AvailableSlotServiceImplBase {
 
+    private static final Sort SLOT_ORDER = KeysetSpecifications.order("date", "startTime", "slotId");
+
     @Autowired
     private AvailableSlotRepository availableSlotRepository;
 
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private SlotGenerator slotGenerator;
+
     @Override
     public void createSlot(AvailableSlotMessage request, StreamObserver<AvailableSlotMessage> responseObserver) {
         doctorRepository.findById(request.getDoctorId())
@@ -34,6 +55,7 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
                     slot.setEndTime(LocalTime.parse(request.getEndTime()));
                     slot.setStatus("AVAILABLE");
                     AvailableSlot savedSlot = availableSlotRepository.save(slot);
+                    slotInventory.invalidateDay(doctor.getDoctorId(), savedSlot.getDate());
                     responseObserver.onNext(convertToMessage(savedSlot));
                     responseObserver.onCompleted();
                 },
@@ -46,7 +68,7 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
         doctorRepository.findById(request.getDoctorId())
             .ifPresentOrElse(
                 doctor -> {
-                    List<AvailableSlot> createdSlots = new ArrayList<>();
+                    List<AvailableSlot> slots = new ArrayList<>();
                     LocalDate date = LocalDate.parse(request.getDate());
                     for (TimeSlot timeSlot : request.getTimeSlotsList()) {
                         AvailableSlot slot = new AvailableSlot();
@@ -55,8 +77,10 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
                         slot.setStartTime(LocalTime.parse(timeSlot.getStartTime()));
                         slot.setEndTime(LocalTime.parse(timeSlot.getEndTime()));
                         slot.setStatus("AVAILABLE");
-                        createdSlots.add(availableSlotRepository.save(slot));
+                        slots.add(slot);
                     }
+                    List<AvailableSlot> createdSlots = availableSlotRepository.saveAll(slots);
+                    slotInventory.invalidateDay(doctor.getDoctorId(), date);
                     AvailableSlotListResponse.Builder builder = AvailableSlotListResponse.newBuilder();
                     createdSlots.forEach(s -> builder.addSlots(convertToMessage(s)));
                     responseObserver.onNext(builder.build());
@@ -66,6 +90,42 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
             );
     }
 
+    @Override
+    public void generateSlots(GenerateSlotsRequest request, StreamObserver<GenerateSlotsResponse> responseObserver) {
+        Set<Long> doctorIds = new LinkedHashSet<>(request.getDoctorIdsList());
+        SlotGenerator.Rule rule;
+        try {
+            if (doctorIds.isEmpty()) {
+                throw new IllegalArgumentException("At least one doctor is required");
+            }
+            rule = new SlotGenerator.Rule(
+                LocalDate.parse(request.getDateFrom()),
+                LocalDate.parse(request.getDateTo()),
+                request.getDaysOfWeekList().stream().map(d -> DayOfWeek.valueOf(d.toUpperCase())).collect(Collectors.toSet()),
+                LocalTime.parse(request.getDayStart()),
+                LocalTime.parse(request.getDayEnd()),
+                request.getSlotMinutes());
+        } catch (RuntimeException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        if (doctorRepository.findAllById(doctorIds).size() < doctorIds.size()) {
+            responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Doctor not found").asRuntimeException());
+            return;
+        }
+
+        try {
+            SlotGenerator.Result result = slotGenerator.generate(doctorIds, rule);
+            responseObserver.onNext(GenerateSlotsResponse.newBuilder()
+                .setCreated(result.created())
+                .setSkipped(result.skipped())
+                .build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to generate slots: " + e.getMessage()).asRuntimeException());
+        }
+    }
+
     @Override
     public void getSlotById(IdRequest request, StreamObserver<AvailableSlotMessage> responseObserver) {
         availableSlotRepository.findById(request.getId())
@@ -87,26 +147,57 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamAllSlots(Empty request, StreamObserver<AvailableSlotMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            availableSlotRepository::findBySlotIdGreaterThanOrderBySlotId,
+            AvailableSlot::getSlotId,
+            this::convertToMessage);
+    }
+
     @Override
     public void getSlotsByFilter(SlotFilterRequest request, StreamObserver<AvailableSlotListResponse> responseObserver) {
-        List<AvailableSlot> slots;
-        if (request.getDoctorId() > 0 && !request.getDate().isEmpty()) {
-            slots = availableSlotRepository.findByDoctorDoctorIdAndDate(request.getDoctorId(), LocalDate.parse(request.getDate()));
-        } else if (request.getDoctorId() > 0) {
-            slots = availableSlotRepository.findByDoctorDoctorId(request.getDoctorId());
-        } else if (!request.getDate().isEmpty()) {
-            slots = availableSlotRepository.findByDate(LocalDate.parse(request.getDate()));
-        } else if (!request.getStatus().isEmpty()) {
-            slots = availableSlotRepository.findByStatus(request.getStatus());
-        } else {
-            slots = availableSlotRepository.findAll();
+        Specification<AvailableSlot> filter;
+        try {
+            filter = toSpecification(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
         }
         AvailableSlotListResponse.Builder builder = AvailableSlotListResponse.newBuilder();
-        slots.forEach(s -> builder.addSlots(convertToMessage(s)));
+        if (KeysetPage.requested(request.getLimit(), request.getCursor())) {
+            KeysetPage<AvailableSlot> page = KeysetPage.fetch(availableSlotRepository, filter, SLOT_ORDER, request.getLimit(),
+                s -> new KeysetCursor(s.getDate(), s.getStartTime(), s.getSlotId()),
+                "doctor", "appointment.patient", "appointment.staff");
+            builder.setNextCursor(page.nextCursor());
+            page.rows().forEach(s -> builder.addSlots(convertToMessage(s)));
+        } else {
+            availableSlotRepository.findAll(filter, SLOT_ORDER).forEach(s -> builder.addSlots(convertToMessage(s)));
+        }
         responseObserver.onNext(builder.build());
         responseObserver.onCompleted();
     }
 
+    private static Specification<AvailableSlot> toSpecification(SlotFilterRequest request) {
+        Set<String> statuses = new LinkedHashSet<>(request.getStatusesList());
+        if (!request.getStatus().isEmpty()) {
+            statuses.add(request.getStatus());
+        }
+        String from = !request.getDateFrom().isEmpty() ? request.getDateFrom() : request.getDate();
+        String to = !request.getDateTo().isEmpty() ? request.getDateTo() : request.getDate();
+
+        Specification<AvailableSlot> filter = Specification.where(AvailableSlotSpecifications.hasDoctor(request.getDoctorId()))
+            .and(AvailableSlotSpecifications.statusIn(statuses))
+            .and(AvailableSlotSpecifications.dateBetween(
+                from.isEmpty() ? null : LocalDate.parse(from),
+                to.isEmpty() ? null : LocalDate.parse(to)));
+        if (!request.getCursor().isEmpty()) {
+            KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+            filter = filter.and(KeysetSpecifications.after(cursor, "date", "startTime", "slotId"));
+        }
+        return filter;
+    }
+
     @Override
     public void getAvailableSlots(SlotFilterRequest request, StreamObserver<AvailableSlotListResponse> responseObserver) {
         List<AvailableSlot> slots;
@@ -123,6 +214,26 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
         responseObserver.onCompleted();
     }
 
+    // Same selection as getAvailableSlots, in slot id order
+    @Override
+    public void streamAvailableSlots(SlotFilterRequest request, StreamObserver<AvailableSlotMessage> responseObserver) {
+        BiFunction<Long, Limit, List<AvailableSlot>> pageQuery;
+        if (request.getDoctorId() > 0 && !request.getDate().isEmpty()) {
+            LocalDate date = LocalDate.parse(request.getDate());
+            pageQuery = (afterId, limit) -> availableSlotRepository.findByDoctorDoctorIdAndDateAndStatusAndSlotIdGreaterThanOrderBySlotId(
+                request.getDoctorId(), date, "AVAILABLE", afterId, limit);
+        } else if (!request.getDate().isEmpty()) {
+            LocalDate date = LocalDate.parse(request.getDate());
+            pageQuery = (afterId, limit) -> availableSlotRepository.findByDateAndStatusAndSlotIdGreaterThanOrderBySlotId(
+                date, "AVAILABLE", afterId, limit);
+        } else {
+            LocalDate today = LocalDate.now();
+            pageQuery = (afterId, limit) -> availableSlotRepository.findByDateGreaterThanEqualAndStatusAndSlotIdGreaterThanOrderBySlotId(
+                today, "AVAILABLE", afterId, limit);
+        }
+        KeysetStreamer.stream(responseObserver, pageQuery, AvailableSlot::getSlotId, this::convertToMessage);
+    }
+
     @Override
     public void getDoctorSlots(IdRequest request, StreamObserver<AvailableSlotListResponse> responseObserver) {
         var slots = availableSlotRepository.findByDoctorDoctorId(request.getId());
@@ -132,6 +243,14 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamDoctorSlots(IdRequest request, StreamObserver<AvailableSlotMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            (afterId, limit) -> availableSlotRepository.findByDoctorDoctorIdAndSlotIdGreaterThanOrderBySlotId(request.getId(), afterId, limit),
+            AvailableSlot::getSlotId,
+            this::convertToMessage);
+    }
+
     @Override
     public void updateSlot(AvailableSlotMessage request, StreamObserver<AvailableSlotMessage> responseObserver) {
         availableSlotRepository.findById(request.getSlotId())
@@ -139,6 +258,7 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
                 slot -> {
                     if (!request.getStatus().isEmpty()) slot.setStatus(request.getStatus());
                     AvailableSlot savedSlot = availableSlotRepository.save(slot);
+                    slotInventory.update(savedSlot);
                     responseObserver.onNext(convertToMessage(savedSlot));
                     responseObserver.onCompleted();
                 },
@@ -150,6 +270,7 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
     public void deleteSlot(IdRequest request, StreamObserver<StatusResponse> responseObserver) {
         if (availableSlotRepository.existsById(request.getId())) {
             availableSlotRepository.deleteById(request.getId());
+            slotInventory.invalidateSlot(request.getId());
             responseObserver.onNext(StatusResponse.newBuilder().setSuccess(true).setMessage("Slot deleted").build());
         } else {
             responseObserver.onNext(StatusResponse.newBuilder().setSuccess(false).setMessage("Slot not found").build());
@@ -157,7 +278,8 @@ public class AvailableSlotServiceImpl extends AvailableSlotServiceGrpc.Available
         responseObserver.onCompleted();
     }
 
-    private AvailableSlotMessage convertToMessage(AvailableSlot slot) {
+    // Package-private for the JMH benchmarks in src/jmh/java
+    AvailableSlotMessage convertToMessage(AvailableSlot slot) {
         AvailableSlotMessage.Builder builder = AvailableSlotMessage.newBuilder()
             .setSlotId(slot.getSlotId())
             .setDate(slot.getDate().toString())
@@ -1,6 +1,7 @@
 package com.clinic.datalayer.grpc;
 
 import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.events.DoctorChangeFeed;
 import com.clinic.datalayer.repositories.DoctorRepository;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
@@ -13,6 +14,9 @@ public class DoctorServiceImpl extends DoctorServiceGrpc.DoctorServiceImplBase {
     @Autowired
     private DoctorRepository doctorRepository;
 
+    @Autowired
+    private DoctorChangeFeed doctorChangeFeed;
+
     @Override
     public void createDoctor(DoctorMessage request, StreamObserver<DoctorMessage> responseObserver) {
         Doctor doctor = new Doctor();
@@ -22,6 +26,7 @@ public class DoctorServiceImpl extends DoctorServiceGrpc.DoctorServiceImplBase {
         doctor.setPassword(request.getPassword());
 
         Doctor savedDoctor = doctorRepository.save(doctor);
+        doctorChangeFeed.publish(savedDoctor.getDoctorId(), DoctorChangeFeed.CREATED);
         responseObserver.onNext(convertToMessage(savedDoctor));
         responseObserver.onCompleted();
     }
@@ -66,6 +71,14 @@ public class DoctorServiceImpl extends DoctorServiceGrpc.DoctorServiceImplBase {
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamAllDoctors(Empty request, StreamObserver<DoctorMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+                doctorRepository::findByDoctorIdGreaterThanOrderByDoctorId,
+                Doctor::getDoctorId,
+                this::convertToMessage);
+    }
+
     @Override
     public void updateDoctor(DoctorMessage request, StreamObserver<DoctorMessage> responseObserver) {
         doctorRepository.findById(request.getDoctorId())
@@ -84,6 +97,7 @@ public class DoctorServiceImpl extends DoctorServiceGrpc.DoctorServiceImplBase {
                                 doctor.setPassword(request.getPassword());
                             }
                             Doctor savedDoctor = doctorRepository.save(doctor);
+                            doctorChangeFeed.publish(savedDoctor.getDoctorId(), DoctorChangeFeed.UPDATED);
                             responseObserver.onNext(convertToMessage(savedDoctor));
                             responseObserver.onCompleted();
                         },
@@ -101,6 +115,7 @@ public class DoctorServiceImpl extends DoctorServiceGrpc.DoctorServiceImplBase {
     public void deleteDoctor(IdRequest request, StreamObserver<StatusResponse> responseObserver) {
         if (doctorRepository.existsById(request.getId())) {
             doctorRepository.deleteById(request.getId());
+            doctorChangeFeed.publish(request.getId(), DoctorChangeFeed.DELETED);
             responseObserver.onNext(StatusResponse.newBuilder()
                     .setSuccess(true)
                     .setMessage("Doctor deleted successfully")
@@ -114,6 +129,11 @@ public class DoctorServiceImpl extends DoctorServiceGrpc.DoctorServiceImplBase {
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void watchDoctorChanges(Empty request, StreamObserver<DoctorChangeEvent> responseObserver) {
+        doctorChangeFeed.subscribe(responseObserver);
+    }
+
     private DoctorMessage convertToMessage(Doctor doctor) {
         return DoctorMessage.newBuilder()
                 .setDoctorId(doctor.getDoctorId())
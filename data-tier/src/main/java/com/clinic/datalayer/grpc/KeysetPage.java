@@ -0,0 +1,39 @@
+package com.clinic.datalayer.grpc;
+
+import com.clinic.datalayer.util.KeysetCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated filter RPC. One extra row is read to find out
+ * whether another page follows, so no count query is ever needed. The
+ * {@code fetch} paths are joined into the same select.
+ */
+record KeysetPage<T>(List<T> rows, String nextCursor) {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    static boolean requested(int limit, String cursor) {
+        return limit > 0 || !cursor.isEmpty();
+    }
+
+    static <T> KeysetPage<T> fetch(JpaSpecificationExecutor<T> repository,
+                                   Specification<T> filter,
+                                   Sort sort,
+                                   int requestedLimit,
+                                   Function<T, KeysetCursor> cursorOf,
+                                   String... fetch) {
+        int limit = requestedLimit <= 0 ? DEFAULT_LIMIT : Math.min(requestedLimit, MAX_LIMIT);
+        List<T> rows = repository.findBy(filter, query -> query.sortBy(sort).project(fetch).limit(limit + 1).all());
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, "");
+        }
+        List<T> page = rows.subList(0, limit);
+        return new KeysetPage<>(page, cursorOf.apply(page.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,83 @@
+package com.clinic.datalayer.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Feeds a server-streaming RPC from keyset-paged repository reads. A new page is
+ * only fetched while the client is ready for more, so neither tier ever holds
+ * more than one page of rows for the call.
+ */
+final class KeysetStreamer<E, M> implements Runnable {
+
+    static final int PAGE_SIZE = 500;
+
+    private final ServerCallStreamObserver<M> observer;
+    private final BiFunction<Long, Limit, List<E>> pageQuery;
+    private final ToLongFunction<E> idOf;
+    private final Function<E, M> mapper;
+
+    // Not a monitor: a virtual thread blocked on JDBC inside synchronized would pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long lastId = 0;
+    private boolean done;
+    private volatile boolean cancelled;
+
+    private KeysetStreamer(ServerCallStreamObserver<M> observer,
+                           BiFunction<Long, Limit, List<E>> pageQuery,
+                           ToLongFunction<E> idOf,
+                           Function<E, M> mapper) {
+        this.observer = observer;
+        this.pageQuery = pageQuery;
+        this.idOf = idOf;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param pageQuery returns up to {@code limit} rows with an id greater than the given one, in id order
+     */
+    static <E, M> void stream(StreamObserver<M> responseObserver,
+                              BiFunction<Long, Limit, List<E>> pageQuery,
+                              ToLongFunction<E> idOf,
+                              Function<E, M> mapper) {
+        ServerCallStreamObserver<M> observer = (ServerCallStreamObserver<M>) responseObserver;
+        KeysetStreamer<E, M> streamer = new KeysetStreamer<>(observer, pageQuery, idOf, mapper);
+        observer.setOnCancelHandler(() -> streamer.cancelled = true);
+        observer.setOnReadyHandler(streamer);
+        streamer.run();
+    }
+
+    @Override
+    public void run() {
+        lock.lock();
+        try {
+            while (!done && !cancelled && observer.isReady()) {
+                List<E> page = pageQuery.apply(lastId, Limit.of(PAGE_SIZE));
+                for (E row : page) {
+                    observer.onNext(mapper.apply(row));
+                }
+                if (page.size() < PAGE_SIZE) {
+                    done = true;
+                    observer.onCompleted();
+                } else {
+                    lastId = idOf.applyAsLong(page.get(page.size() - 1));
+                }
+            }
+        } catch (Exception e) {
+            done = true;
+            if (!cancelled) {
+                observer.onError(io.grpc.Status.INTERNAL.withDescription("Streaming failed: " + e.getMessage()).asRuntimeException());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.clinic.datalayer.grpc;
 
 import com.clinic.datalayer.entities.Notification;
+import com.clinic.datalayer.events.NotificationFeed;
+import com.clinic.datalayer.reports.UnreadNotificationCounts;
 import com.clinic.datalayer.repositories.AppointmentRepository;
+import com.clinic.datalayer.repositories.KeysetSpecifications;
 import com.clinic.datalayer.repositories.NotificationRepository;
 import com.clinic.datalayer.repositories.StaffRepository;
+import com.clinic.datalayer.util.KeysetCursor;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 
 
 @GRpcService
 public class NotificationServiceImpl extends NotificationServiceGrpc.NotificationServiceImplBase {
 
+    private static final Sort NOTIFICATION_ORDER = KeysetSpecifications.order("createdAt", "notificationId");
+
     @Autowired
     private NotificationRepository notificationRepository;
 
@@ -23,6 +35,15 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
     @Autowired
     private StaffRepository staffRepository;
 
+    @Autowired
+    private NotificationFeed notificationFeed;
+
+    @Autowired
+    private UnreadNotificationCounts unreadCounts;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
     public void sendNotification(SendNotificationRequest request, StreamObserver<NotificationMessage> responseObserver) {
         try {
@@ -31,7 +52,7 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
             notification.setRecipientType(request.getRecipientType());
             notification.setMessage(request.getMessage());
             notification.setType(request.getType().isEmpty() ? "MANUAL" : request.getType());
-            notification.setStatus("SENT");
+            notification.setStatus("PENDING");
             notification.setChannel(request.getChannel().isEmpty() ? "EMAIL" : request.getChannel());
 
             if (request.getAppointmentId() > 0) {
@@ -41,7 +62,12 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
                 staffRepository.findById(request.getStaffId()).ifPresent(notification::setStaff);
             }
 
-            Notification savedNotification = notificationRepository.save(notification);
+            Notification savedNotification = transactionTemplate.execute(status -> {
+                Notification saved = notificationRepository.save(notification);
+                unreadCounts.added(saved);
+                notificationFeed.publish(saved);
+                return saved;
+            });
             responseObserver.onNext(convertToMessage(savedNotification));
             responseObserver.onCompleted();
         } catch (Exception e) {
@@ -70,8 +96,24 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamAllNotifications(Empty request, StreamObserver<NotificationMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            notificationRepository::findByNotificationIdGreaterThanOrderByNotificationId,
+            Notification::getNotificationId,
+            this::convertToMessage);
+    }
+
     @Override
     public void getNotificationsByFilter(NotificationFilterRequest request, StreamObserver<NotificationListResponse> responseObserver) {
+        if (KeysetPage.requested(request.getLimit(), request.getCursor())) {
+            getNotificationsPage(request, responseObserver);
+            return;
+        }
+        if (!request.getSince().isEmpty()) {
+            getNotificationsSince(request, responseObserver);
+            return;
+        }
         List<Notification> notifications;
         if (request.getRecipientId() > 0 && !request.getRecipientType().isEmpty()) {
             notifications = notificationRepository.findByRecipientIdAndRecipientType(request.getRecipientId(), request.getRecipientType());
@@ -88,6 +130,14 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
 
     @Override
     public void getUserNotifications(NotificationFilterRequest request, StreamObserver<NotificationListResponse> responseObserver) {
+        if (KeysetPage.requested(request.getLimit(), request.getCursor())) {
+            getNotificationsPage(request, responseObserver);
+            return;
+        }
+        if (!request.getSince().isEmpty()) {
+            getNotificationsSince(request, responseObserver);
+            return;
+        }
         var notifications = notificationRepository.findByRecipientIdAndRecipientType(request.getRecipientId(), request.getRecipientType());
         NotificationListResponse.Builder builder = NotificationListResponse.newBuilder();
         notifications.forEach(n -> builder.addNotifications(convertToMessage(n)));
@@ -95,24 +145,164 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamUserNotifications(NotificationFilterRequest request, StreamObserver<NotificationMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            (afterId, limit) -> notificationRepository.findByRecipientIdAndRecipientTypeAndNotificationIdGreaterThanOrderByNotificationId(
+                request.getRecipientId(), request.getRecipientType(), afterId, limit),
+            Notification::getNotificationId,
+            this::convertToMessage);
+    }
+
+    @Override
+    public void subscribeNotifications(SubscribeNotificationsRequest request, StreamObserver<NotificationMessage> responseObserver) {
+        if (request.getRecipientId() > 0 && request.getRecipientType().isEmpty()) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription("recipientType is required with recipientId").asRuntimeException());
+            return;
+        }
+        notificationFeed.subscribe(request, responseObserver);
+    }
+
+    private void getNotificationsPage(NotificationFilterRequest request, StreamObserver<NotificationListResponse> responseObserver) {
+        Specification<Notification> filter = filterOf(request);
+        try {
+            if (!request.getSince().isEmpty()) {
+                filter = filter.and(since(request.getSince()));
+            }
+            if (!request.getCursor().isEmpty()) {
+                KeysetCursor cursor = KeysetCursor.decode(request.getCursor());
+                filter = filter.and(KeysetSpecifications.after(cursor, "createdAt", "notificationId"));
+            }
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        KeysetPage<Notification> page = KeysetPage.fetch(notificationRepository, filter, NOTIFICATION_ORDER, request.getLimit(),
+            n -> KeysetCursor.of(n.getCreatedAt(), n.getNotificationId()));
+        NotificationListResponse.Builder builder = NotificationListResponse.newBuilder().setNextCursor(page.nextCursor());
+        page.rows().forEach(n -> builder.addNotifications(convertToMessage(n)));
+        responseObserver.onNext(builder.build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Everything matching the filter created after {@code since}, oldest first,
+     * for clients that already hold the rest.
+     */
+    private void getNotificationsSince(NotificationFilterRequest request, StreamObserver<NotificationListResponse> responseObserver) {
+        Specification<Notification> filter;
+        try {
+            filter = filterOf(request).and(since(request.getSince()));
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        NotificationListResponse.Builder builder = NotificationListResponse.newBuilder();
+        notificationRepository.findAll(filter, Sort.by("notificationId"))
+            .forEach(n -> builder.addNotifications(convertToMessage(n)));
+        responseObserver.onNext(builder.build());
+        responseObserver.onCompleted();
+    }
+
+    private static Specification<Notification> filterOf(NotificationFilterRequest request) {
+        Specification<Notification> filter = Specification.where(null);
+        if (request.getRecipientId() > 0) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("recipientId"), request.getRecipientId()));
+        }
+        if (!request.getRecipientType().isEmpty()) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("recipientType"), request.getRecipientType()));
+        }
+        if (!request.getStatus().isEmpty()) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("status"), request.getStatus()));
+        }
+        if (!request.getType().isEmpty()) {
+            filter = filter.and((root, query, cb) -> cb.equal(root.get("type"), request.getType()));
+        }
+        return filter;
+    }
+
+    // A notification id, or an ISO-8601 local date-time compared against createdAt
+    private static Specification<Notification> since(String since) {
+        if (since.chars().allMatch(Character::isDigit)) {
+            long afterId = Long.parseLong(since);
+            return (root, query, cb) -> cb.greaterThan(root.get("notificationId"), afterId);
+        }
+        try {
+            LocalDateTime after = LocalDateTime.parse(since);
+            return (root, query, cb) -> cb.greaterThan(root.get("createdAt"), after);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("since must be a notification id or an ISO-8601 date-time");
+        }
+    }
+
     @Override
     public void markNotificationAsRead(IdRequest request, StreamObserver<NotificationMessage> responseObserver) {
-        notificationRepository.findById(request.getId())
-            .ifPresentOrElse(
-                notification -> {
-                    notification.setStatus("READ");
-                    Notification savedNotification = notificationRepository.save(notification);
-                    responseObserver.onNext(convertToMessage(savedNotification));
-                    responseObserver.onCompleted();
-                },
-                () -> responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Notification not found").asRuntimeException())
-            );
+        Optional<Notification> read = transactionTemplate.execute(status -> notificationRepository.findById(request.getId())
+            .map(notification -> {
+                if (notificationRepository.markRead(notification.getNotificationId()) > 0) {
+                    unreadCounts.removed(notification.getRecipientId(), notification.getRecipientType(), 1);
+                }
+                notification.setStatus("READ");
+                return notification;
+            }));
+        read.ifPresentOrElse(
+            notification -> {
+                responseObserver.onNext(convertToMessage(notification));
+                responseObserver.onCompleted();
+            },
+            () -> responseObserver.onError(io.grpc.Status.NOT_FOUND.withDescription("Notification not found").asRuntimeException())
+        );
+    }
+
+    /**
+     * Marks a recipient's notifications read in one statement: those up to and
+     * including {@code upToId}, or all of them when it is not set.
+     */
+    @Override
+    public void markNotificationsAsRead(MarkNotificationsReadRequest request, StreamObserver<MarkNotificationsReadResponse> responseObserver) {
+        if (request.getRecipientId() <= 0 || request.getRecipientType().isEmpty()) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription("recipientId and recipientType are required").asRuntimeException());
+            return;
+        }
+        long upToId = request.getUpToId() > 0 ? request.getUpToId() : Long.MAX_VALUE;
+        Integer updated = transactionTemplate.execute(status -> {
+            int count = notificationRepository.markReadUpTo(request.getRecipientId(), request.getRecipientType(), upToId);
+            unreadCounts.removed(request.getRecipientId(), request.getRecipientType(), count);
+            return count;
+        });
+        responseObserver.onNext(MarkNotificationsReadResponse.newBuilder()
+            .setUpdated(updated)
+            .setUnreadCount(unreadCounts.unread(request.getRecipientId(), request.getRecipientType()))
+            .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getUnreadCount(NotificationFilterRequest request, StreamObserver<UnreadCountResponse> responseObserver) {
+        if (request.getRecipientId() <= 0 || request.getRecipientType().isEmpty()) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT.withDescription("recipientId and recipientType are required").asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(UnreadCountResponse.newBuilder()
+            .setRecipientId(request.getRecipientId())
+            .setRecipientType(request.getRecipientType())
+            .setUnreadCount(unreadCounts.unread(request.getRecipientId(), request.getRecipientType()))
+            .build());
+        responseObserver.onCompleted();
     }
 
     @Override
     public void deleteNotification(IdRequest request, StreamObserver<StatusResponse> responseObserver) {
-        if (notificationRepository.existsById(request.getId())) {
-            notificationRepository.deleteById(request.getId());
+        Boolean deleted = transactionTemplate.execute(status -> notificationRepository.findById(request.getId())
+            .map(notification -> {
+                notificationRepository.delete(notification);
+                if (!"READ".equals(notification.getStatus())) {
+                    unreadCounts.removed(notification.getRecipientId(), notification.getRecipientType(), 1);
+                }
+                return true;
+            })
+            .orElse(false));
+        if (Boolean.TRUE.equals(deleted)) {
             responseObserver.onNext(StatusResponse.newBuilder().setSuccess(true).setMessage("Notification deleted").build());
         } else {
             responseObserver.onNext(StatusResponse.newBuilder().setSuccess(false).setMessage("Notification not found").build());
@@ -121,21 +311,6 @@ public class NotificationServiceImpl extends NotificationServiceGrpc.Notificatio
     }
 
     private NotificationMessage convertToMessage(Notification notification) {
-        NotificationMessage.Builder builder = NotificationMessage.newBuilder()
-            .setNotificationId(notification.getNotificationId())
-            .setRecipientId(notification.getRecipientId())
-            .setRecipientType(notification.getRecipientType() != null ? notification.getRecipientType() : "")
-            .setMessage(notification.getMessage() != null ? notification.getMessage() : "")
-            .setType(notification.getType() != null ? notification.getType() : "")
-            .setStatus(notification.getStatus() != null ? notification.getStatus() : "")
-            .setChannel(notification.getChannel() != null ? notification.getChannel() : "")
-            .setCreatedAt(notification.getCreatedAt() != null ? notification.getCreatedAt().toString() : "");
-        if (notification.getAppointment() != null) {
-            builder.setAppointmentId(notification.getAppointment().getAppointmentId());
-        }
-        if (notification.getStaff() != null) {
-            builder.setStaffId(notification.getStaff().getStaffId());
-        }
-        return builder.build();
+        return notificationFeed.toMessage(notification);
     }
 }
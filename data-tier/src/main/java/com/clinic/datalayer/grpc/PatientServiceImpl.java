@@ -73,6 +73,14 @@ public class PatientServiceImpl extends PatientServiceGrpc.PatientServiceImplBas
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamAllPatients(Empty request, StreamObserver<PatientMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            patientRepository::findByPatientIdGreaterThanOrderByPatientId,
+            Patient::getPatientId,
+            this::convertToMessage);
+    }
+
     @Override
     public void updatePatient(PatientMessage request, StreamObserver<PatientMessage> responseObserver) {
         patientRepository.findById(request.getPatientId())
@@ -1,17 +1,21 @@
 package com.clinic.datalayer.grpc;
 
 import com.clinic.datalayer.entities.Appointment;
-import com.clinic.datalayer.entities.Doctor;
 import com.clinic.datalayer.repositories.AppointmentRepository;
+import com.clinic.datalayer.repositories.AppointmentSpecifications;
 import com.clinic.datalayer.repositories.AvailableSlotRepository;
+import com.clinic.datalayer.repositories.DoctorCount;
 import com.clinic.datalayer.repositories.DoctorRepository;
+import com.clinic.datalayer.repositories.DoctorStatusCount;
+import com.clinic.datalayer.reports.AppointmentRollup;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 
@@ -27,32 +31,54 @@ public class ReportServiceImpl extends ReportServiceGrpc.ReportServiceImplBase {
     @Autowired
     private AvailableSlotRepository availableSlotRepository;
 
+    @Autowired
+    private AppointmentRollup appointmentRollup;
+
     @Override
     public void generateScheduleReport(ScheduleReportRequest request, StreamObserver<ScheduleReportResponse> responseObserver) {
         try {
-            List<Appointment> appointments;
-            
-            if (request.getDoctorId() > 0) {
-                appointments = appointmentRepository.findByDoctorDoctorId(request.getDoctorId());
-            } else {
-                appointments = appointmentRepository.findAll();
-            }
-
+            LocalDate startDate = null;
+            LocalDate endDate = null;
             if (!request.getStartDate().isEmpty() && !request.getEndDate().isEmpty()) {
-                LocalDate startDate = LocalDate.parse(request.getStartDate());
-                LocalDate endDate = LocalDate.parse(request.getEndDate());
-                appointments = appointments.stream()
-                    .filter(a -> !a.getDate().isBefore(startDate) && !a.getDate().isAfter(endDate))
-                    .collect(Collectors.toList());
+                startDate = LocalDate.parse(request.getStartDate());
+                endDate = LocalDate.parse(request.getEndDate());
             }
 
-            int totalAppointments = appointments.size();
-            int completedAppointments = (int) appointments.stream().filter(a -> "COMPLETED".equals(a.getStatus())).count();
-            int cancelledAppointments = (int) appointments.stream().filter(a -> a.getStatus() != null && a.getStatus().startsWith("CANCELLED")).count();
-            int missedAppointments = (int) appointments.stream().filter(a -> "MISSED".equals(a.getStatus())).count();
+            Map<Long, Map<String, Long>> counts = appointmentRollup.isLoaded()
+                ? appointmentRollup.countByDoctorAndStatus(request.getDoctorId(), startDate, endDate)
+                : countFromAppointments(request.getDoctorId(), startDate, endDate);
+
+            int totalAppointments = 0;
+            int completedAppointments = 0;
+            int cancelledAppointments = 0;
+            int missedAppointments = 0;
+            Map<Long, DoctorScheduleSummary.Builder> summaries = new TreeMap<>();
+            doctorRepository.findAllById(counts.keySet()).forEach(doctor -> summaries.put(doctor.getDoctorId(),
+                DoctorScheduleSummary.newBuilder().setDoctorId(doctor.getDoctorId()).setDoctorName(doctor.getName())));
 
-            Map<Long, List<Appointment>> appointmentsByDoctor = appointments.stream()
-                .collect(Collectors.groupingBy(a -> a.getDoctor().getDoctorId()));
+            for (Map.Entry<Long, Map<String, Long>> doctorCounts : counts.entrySet()) {
+                int doctorTotal = 0;
+                for (Map.Entry<String, Long> count : doctorCounts.getValue().entrySet()) {
+                    int n = count.getValue().intValue();
+                    doctorTotal += n;
+                    if ("COMPLETED".equals(count.getKey())) {
+                        completedAppointments += n;
+                    } else if (count.getKey() != null && count.getKey().startsWith("CANCELLED")) {
+                        cancelledAppointments += n;
+                    } else if ("MISSED".equals(count.getKey())) {
+                        missedAppointments += n;
+                    }
+                }
+                totalAppointments += doctorTotal;
+                DoctorScheduleSummary.Builder summary = summaries.get(doctorCounts.getKey());
+                if (summary != null) {
+                    summary.setTotalAppointments(doctorTotal);
+                }
+            }
+
+            Map<Long, Long> availableSlots = summaries.isEmpty() ? Map.of() :
+                availableSlotRepository.countAvailableByDoctor(summaries.keySet()).stream()
+                    .collect(Collectors.toMap(DoctorCount::doctorId, DoctorCount::count));
 
             ScheduleReportResponse.Builder responseBuilder = ScheduleReportResponse.newBuilder()
                 .setTotalAppointments(totalAppointments)
@@ -60,19 +86,8 @@ public class ReportServiceImpl extends ReportServiceGrpc.ReportServiceImplBase {
                 .setCancelledAppointments(cancelledAppointments)
                 .setMissedAppointments(missedAppointments);
 
-            for (Map.Entry<Long, List<Appointment>> entry : appointmentsByDoctor.entrySet()) {
-                Doctor doctor = entry.getValue().get(0).getDoctor();
-                int doctorAppointments = entry.getValue().size();
-                int availableSlots = availableSlotRepository.findByDoctorDoctorIdAndStatus(doctor.getDoctorId(), "AVAILABLE").size();
-
-                DoctorScheduleSummary summary = DoctorScheduleSummary.newBuilder()
-                    .setDoctorId(doctor.getDoctorId())
-                    .setDoctorName(doctor.getName())
-                    .setTotalAppointments(doctorAppointments)
-                    .setAvailableSlots(availableSlots)
-                    .build();
-                responseBuilder.addDoctorSummaries(summary);
-            }
+            summaries.forEach((doctorId, summary) -> responseBuilder.addDoctorSummaries(
+                summary.setAvailableSlots(availableSlots.getOrDefault(doctorId, 0L).intValue()).build()));
 
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
@@ -80,4 +95,17 @@ public class ReportServiceImpl extends ReportServiceGrpc.ReportServiceImplBase {
             responseObserver.onError(io.grpc.Status.INTERNAL.withDescription("Failed to generate report: " + e.getMessage()).asRuntimeException());
         }
     }
+
+    /**
+     * Used until the rollup counters have been loaded after startup.
+     */
+    private Map<Long, Map<String, Long>> countFromAppointments(long doctorId, LocalDate startDate, LocalDate endDate) {
+        Specification<Appointment> filter = Specification.where(AppointmentSpecifications.hasDoctor(doctorId))
+            .and(AppointmentSpecifications.dateBetween(startDate, endDate));
+        Map<Long, Map<String, Long>> counts = new TreeMap<>();
+        for (DoctorStatusCount count : appointmentRepository.countByDoctorAndStatus(filter)) {
+            counts.computeIfAbsent(count.doctorId(), id -> new TreeMap<>()).merge(count.status(), count.count(), Long::sum);
+        }
+        return counts;
+    }
 }
@@ -55,6 +55,14 @@ public class StaffServiceImpl extends StaffServiceGrpc.StaffServiceImplBase {
         responseObserver.onCompleted();
     }
 
+    @Override
+    public void streamAllStaff(Empty request, StreamObserver<StaffMessage> responseObserver) {
+        KeysetStreamer.stream(responseObserver,
+            staffRepository::findByStaffIdGreaterThanOrderByStaffId,
+            Staff::getStaffId,
+            this::convertToMessage);
+    }
+
     @Override
     public void updateStaff(StaffMessage request, StreamObserver<StaffMessage> responseObserver) {
         staffRepository.findById(request.getStaffId())
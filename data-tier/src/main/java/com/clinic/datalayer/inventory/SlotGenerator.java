@@ -0,0 +1,128 @@
+package com.clinic.datalayer.inventory;
+
+import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.repositories.AvailableSlotRepository;
+import com.clinic.datalayer.repositories.SlotKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Publishes recurring schedules. Slots are persisted in chunks of
+ * {@link #BATCH_SIZE} and the persistence context is flushed and cleared after
+ * each chunk, so Hibernate sends one JDBC batch per chunk and memory stays flat
+ * however many slots are generated. Slots that already exist for the same
+ * doctor, day and start time are skipped, which makes re-running a rule safe.
+ */
+@Component
+public class SlotGenerator {
+
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size and the slot id sequence's allocation size
+    static final int BATCH_SIZE = 50;
+    static final int MAX_DAYS = 366;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AvailableSlotRepository availableSlotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotInventory slotInventory;
+
+    public SlotGenerator(AvailableSlotRepository availableSlotRepository, TransactionTemplate transactionTemplate,
+                         SlotInventory slotInventory) {
+        this.availableSlotRepository = availableSlotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.slotInventory = slotInventory;
+    }
+
+    public Result generate(Collection<Long> doctorIds, Rule rule) {
+        List<LocalDate> dates = rule.dates();
+        List<LocalTime> startTimes = rule.startTimes();
+        Result result = transactionTemplate.execute(status -> {
+            Set<SlotKey> existing = new HashSet<>(availableSlotRepository.findSlotKeys(doctorIds, rule.from(), rule.to()));
+            int created = 0;
+            int skipped = 0;
+            for (Long doctorId : doctorIds) {
+                for (LocalDate date : dates) {
+                    for (LocalTime start : startTimes) {
+                        if (existing.contains(new SlotKey(doctorId, date, start))) {
+                            skipped++;
+                            continue;
+                        }
+                        AvailableSlot slot = new AvailableSlot();
+                        slot.setDoctor(entityManager.getReference(Doctor.class, doctorId));
+                        slot.setDate(date);
+                        slot.setStartTime(start);
+                        slot.setEndTime(start.plusMinutes(rule.slotMinutes()));
+                        slot.setStatus("AVAILABLE");
+                        entityManager.persist(slot);
+                        if (++created % BATCH_SIZE == 0) {
+                            entityManager.flush();
+                            entityManager.clear();
+                        }
+                    }
+                }
+            }
+            return new Result(created, skipped);
+        });
+        for (Long doctorId : doctorIds) {
+            dates.forEach(date -> slotInventory.invalidateDay(doctorId, date));
+        }
+        return result;
+    }
+
+    /**
+     * Slots of {@code slotMinutes} laid end to end from {@code dayStart} until
+     * {@code dayEnd}, on each of {@code daysOfWeek} between {@code from} and
+     * {@code to} inclusive.
+     */
+    public record Rule(LocalDate from, LocalDate to, Set<DayOfWeek> daysOfWeek,
+                       LocalTime dayStart, LocalTime dayEnd, int slotMinutes) {
+
+        public Rule {
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("dateTo is before dateFrom");
+            }
+            if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+                throw new IllegalArgumentException("A rule can cover at most " + MAX_DAYS + " days");
+            }
+            if (!dayEnd.isAfter(dayStart)) {
+                throw new IllegalArgumentException("dayEnd must be after dayStart");
+            }
+            if (slotMinutes <= 0) {
+                throw new IllegalArgumentException("slotMinutes must be positive");
+            }
+            daysOfWeek = Set.copyOf(daysOfWeek);
+        }
+
+        List<LocalDate> dates() {
+            return from.datesUntil(to.plusDays(1))
+                    .filter(date -> daysOfWeek.isEmpty() || daysOfWeek.contains(date.getDayOfWeek()))
+                    .toList();
+        }
+
+        List<LocalTime> startTimes() {
+            List<LocalTime> starts = new ArrayList<>();
+            int end = dayEnd.toSecondOfDay();
+            for (int start = dayStart.toSecondOfDay(); start + slotMinutes * 60 <= end; start += slotMinutes * 60) {
+                starts.add(LocalTime.ofSecondOfDay(start));
+            }
+            return starts;
+        }
+    }
+
+    public record Result(int created, int skipped) {
+    }
+}
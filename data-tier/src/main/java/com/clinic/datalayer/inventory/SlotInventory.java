@@ -0,0 +1,222 @@
+package com.clinic.datalayer.inventory;
+
+import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.repositories.AvailableSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory view of slot availability, kept as one block per doctor and day.
+ * Each block holds the slot ids in sorted order next to a state array, and a
+ * booking claims its slot with a compare-and-set on that array so only one
+ * concurrent request can win. The database stays the source of truth: blocks
+ * are loaded on first use and dropped whenever slots are added or removed here.
+ * Other instances change slots without telling this one, so a block is re-read
+ * when it misses a slot the database has, and before a booking is refused on a
+ * block older than {@code inventory.recheck-after-ms}.
+ */
+@Component
+public class SlotInventory {
+
+    static final int AVAILABLE = 0;
+    static final int RESERVED = 1;
+    static final int BOOKED = 2;
+    static final int CLOSED = 3;
+
+    private final AvailableSlotRepository availableSlotRepository;
+    private final long recheckAfterNanos;
+
+    private final ConcurrentHashMap<DayKey, DaySlots> days = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DayKey> slotDays = new ConcurrentHashMap<>();
+
+    public SlotInventory(AvailableSlotRepository availableSlotRepository,
+                         @Value("${inventory.recheck-after-ms:5000}") long recheckAfterMillis) {
+        this.availableSlotRepository = availableSlotRepository;
+        this.recheckAfterNanos = TimeUnit.MILLISECONDS.toNanos(recheckAfterMillis);
+    }
+
+    /**
+     * Claims the slot for a booking. A reserved slot must be followed by either
+     * {@link #confirm(long)} or {@link #release(long)}.
+     */
+    public Reservation tryReserve(long slotId) {
+        DaySlots day = dayOf(slotId);
+        int index = day != null ? day.indexOf(slotId) : -1;
+        if (day != null && index < 0) {
+            // Loaded while the slot was being created, or it was created on another instance
+            day = reload(day);
+            index = day.indexOf(slotId);
+        }
+        if (index < 0) {
+            return Reservation.notFound(slotId);
+        }
+        if (!day.states.compareAndSet(index, AVAILABLE, RESERVED)) {
+            // RESERVED is a booking in flight here; BOOKED or CLOSED may since have been undone elsewhere
+            if (day.states.get(index) == RESERVED || System.nanoTime() - day.loadedAt < recheckAfterNanos) {
+                return Reservation.unavailable(slotId);
+            }
+            day = reload(day);
+            index = day.indexOf(slotId);
+            if (index < 0) {
+                return Reservation.notFound(slotId);
+            }
+            if (!day.states.compareAndSet(index, AVAILABLE, RESERVED)) {
+                return Reservation.unavailable(slotId);
+            }
+        }
+        return new Reservation(Reservation.Status.RESERVED, slotId, day.key.date(),
+                LocalTime.ofSecondOfDay(day.startSeconds[index]),
+                LocalTime.ofSecondOfDay(day.endSeconds[index]));
+    }
+
+    public void confirm(long slotId) {
+        setState(slotId, BOOKED);
+    }
+
+    /**
+     * Returns the slot to the pool, either after a failed booking or after the
+     * appointment holding it was cancelled.
+     */
+    public void release(long slotId) {
+        setState(slotId, AVAILABLE);
+    }
+
+    public void update(AvailableSlot slot) {
+        setState(slot.getSlotId(), stateOf(slot.getStatus()));
+    }
+
+    public void invalidateDay(long doctorId, LocalDate date) {
+        DaySlots removed = days.remove(new DayKey(doctorId, date));
+        if (removed != null) {
+            for (long id : removed.slotIds) {
+                slotDays.remove(id, removed.key);
+            }
+        }
+    }
+
+    public void invalidateSlot(long slotId) {
+        DayKey key = slotDays.get(slotId);
+        if (key != null) {
+            invalidateDay(key.doctorId(), key.date());
+        }
+    }
+
+    @Scheduled(cron = "${inventory.eviction-cron:0 0 3 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().stream()
+                .filter(key -> key.date().isBefore(today))
+                .toList()
+                .forEach(key -> invalidateDay(key.doctorId(), key.date()));
+    }
+
+    private void setState(long slotId, int state) {
+        DayKey key = slotDays.get(slotId);
+        DaySlots day = key != null ? days.get(key) : null;
+        int index = day != null ? day.indexOf(slotId) : -1;
+        if (index >= 0) {
+            day.states.set(index, state);
+        }
+    }
+
+    private DaySlots dayOf(long slotId) {
+        DayKey key = slotDays.get(slotId);
+        if (key == null) {
+            var slot = availableSlotRepository.findById(slotId);
+            if (slot.isEmpty()) {
+                return null;
+            }
+            key = new DayKey(slot.get().getDoctor().getDoctorId(), slot.get().getDate());
+        }
+        // Loaded outside computeIfAbsent, whose bin lock would pin a virtual thread for the whole query
+        DaySlots day = days.get(key);
+        if (day == null) {
+            DaySlots loaded = loadDay(key);
+            day = days.putIfAbsent(key, loaded);
+            if (day == null) {
+                day = loaded;
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Replaces {@code stale} with a fresh load, unless another thread already
+     * replaced it, in which case that block wins.
+     */
+    private DaySlots reload(DaySlots stale) {
+        DaySlots loaded = loadDay(stale.key);
+        return days.merge(stale.key, loaded, (current, fresh) -> current == stale ? fresh : current);
+    }
+
+    private DaySlots loadDay(DayKey key) {
+        long loadedAt = System.nanoTime();
+        List<AvailableSlot> slots = availableSlotRepository.findByDoctorDoctorIdAndDate(key.doctorId(), key.date())
+                .stream()
+                .sorted(Comparator.comparing(AvailableSlot::getSlotId))
+                .toList();
+        DaySlots day = new DaySlots(key, slots.size(), loadedAt);
+        for (int i = 0; i < slots.size(); i++) {
+            AvailableSlot slot = slots.get(i);
+            day.slotIds[i] = slot.getSlotId();
+            day.startSeconds[i] = slot.getStartTime().toSecondOfDay();
+            day.endSeconds[i] = slot.getEndTime().toSecondOfDay();
+            day.states.set(i, stateOf(slot.getStatus()));
+            slotDays.put(slot.getSlotId(), key);
+        }
+        return day;
+    }
+
+    private static int stateOf(String status) {
+        if ("AVAILABLE".equals(status)) return AVAILABLE;
+        if ("BOOKED".equals(status)) return BOOKED;
+        return CLOSED;
+    }
+
+    private record DayKey(long doctorId, LocalDate date) {}
+
+    private static final class DaySlots {
+        final DayKey key;
+        final long[] slotIds;
+        final int[] startSeconds;
+        final int[] endSeconds;
+        final AtomicIntegerArray states;
+        final long loadedAt;
+
+        DaySlots(DayKey key, int size, long loadedAt) {
+            this.key = key;
+            this.loadedAt = loadedAt;
+            this.slotIds = new long[size];
+            this.startSeconds = new int[size];
+            this.endSeconds = new int[size];
+            this.states = new AtomicIntegerArray(size);
+        }
+
+        int indexOf(long slotId) {
+            return Arrays.binarySearch(slotIds, slotId);
+        }
+    }
+
+    public record Reservation(Status status, long slotId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+
+        public enum Status { RESERVED, UNAVAILABLE, NOT_FOUND }
+
+        static Reservation notFound(long slotId) {
+            return new Reservation(Status.NOT_FOUND, slotId, null, null, null);
+        }
+
+        static Reservation unavailable(long slotId) {
+            return new Reservation(Status.UNAVAILABLE, slotId, null, null, null);
+        }
+    }
+}
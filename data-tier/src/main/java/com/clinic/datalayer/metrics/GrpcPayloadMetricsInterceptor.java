@@ -0,0 +1,65 @@
+package com.clinic.datalayer.metrics;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.lognet.springboot.grpc.GRpcGlobalInterceptor;
+
+/**
+ * Records the serialized size of every message each RPC receives and sends as
+ * {@code grpc.server.message.size}, tagged with the method and direction.
+ * Latency and status codes per RPC come from the starter's {@code grpc.server.calls}.
+ */
+@GRpcGlobalInterceptor
+public class GrpcPayloadMetricsInterceptor implements ServerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public GrpcPayloadMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String method = call.getMethodDescriptor().getFullMethodName();
+        DistributionSummary received = summary(method, "received");
+        DistributionSummary sent = summary(method, "sent");
+
+        ServerCall<ReqT, RespT> measured = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendMessage(RespT message) {
+                record(sent, message);
+                super.sendMessage(message);
+            }
+        };
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(measured, headers)) {
+            @Override
+            public void onMessage(ReqT message) {
+                record(received, message);
+                super.onMessage(message);
+            }
+        };
+    }
+
+    private DistributionSummary summary(String method, String direction) {
+        return DistributionSummary.builder("grpc.server.message.size")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static void record(DistributionSummary summary, Object message) {
+        if (message instanceof MessageLite protobuf) {
+            summary.record(protobuf.getSerializedSize());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.clinic.datalayer.outbox;
+
+import com.clinic.datalayer.repositories.PendingNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in for an email gateway. Each delivered notification becomes one line,
+ * appended to {@code notifications.email.outbox-file} when that is set; the
+ * last {@code notifications.email.retained} lines are also kept in memory.
+ */
+@Component
+public class LocalEmailChannel implements NotificationChannel {
+
+    private final Path outboxFile;
+    private final int retained;
+    private final Deque<String> recent = new ArrayDeque<>();
+
+    public LocalEmailChannel(@Value("${notifications.email.outbox-file:}") String outboxFile,
+                             @Value("${notifications.email.retained:1000}") int retained) {
+        this.outboxFile = outboxFile.isBlank() ? null : Path.of(outboxFile);
+        this.retained = retained;
+    }
+
+    @Override
+    public String name() {
+        return "EMAIL";
+    }
+
+    @Override
+    public void deliver(PendingNotification notification) throws IOException {
+        String line = String.format("%s to=%s:%d type=%s notification=%d %s%n", LocalDateTime.now(),
+                notification.recipientType(), notification.recipientId(), notification.type(),
+                notification.notificationId(), notification.message().replace('\n', ' '));
+        if (outboxFile != null) {
+            Files.writeString(outboxFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        synchronized (recent) {
+            recent.addLast(line);
+            if (recent.size() > retained) {
+                recent.removeFirst();
+            }
+        }
+    }
+
+    public List<String> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
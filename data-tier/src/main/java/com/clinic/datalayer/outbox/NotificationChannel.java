@@ -0,0 +1,16 @@
+package com.clinic.datalayer.outbox;
+
+import com.clinic.datalayer.repositories.PendingNotification;
+
+/**
+ * Delivers notifications whose {@code channel} equals {@link #name()}. Any
+ * exception counts as a failed attempt and the dispatcher retries with backoff.
+ * Delivery is at least once: a notification can be handed over again if the
+ * dispatcher stops before recording the result.
+ */
+public interface NotificationChannel {
+
+    String name();
+
+    void deliver(PendingNotification notification) throws Exception;
+}
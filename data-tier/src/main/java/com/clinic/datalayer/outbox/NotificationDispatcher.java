@@ -0,0 +1,153 @@
+package com.clinic.datalayer.outbox;
+
+import com.clinic.datalayer.repositories.NotificationRepository;
+import com.clinic.datalayer.repositories.NotificationRepositoryCustom.DeliveryFailure;
+import com.clinic.datalayer.repositories.PendingNotification;
+import com.clinic.datalayer.templates.NotificationTemplates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox. Booking and cancellation only insert a
+ * PENDING row in their own transaction; this claims due rows in batches of
+ * {@code notifications.dispatch.batch-size} with FOR UPDATE SKIP LOCKED, so
+ * several data-tier instances can run it side by side, and hands each to the
+ * {@link NotificationChannel} named by its {@code channel}. A failed attempt is
+ * retried after an exponentially growing, jittered delay between
+ * {@code retry-base} and {@code retry-max}; after {@code max-attempts}, or when
+ * no adapter exists for the channel, the row is marked FAILED.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.dispatch.enabled", matchIfMissing = true)
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final String DEFAULT_CHANNEL = "EMAIL";
+    // Lets a backlog drain over several runs instead of holding the scheduler thread
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final NotificationRepository notificationRepository;
+    private final Map<String, NotificationChannel> channels;
+    private final NotificationTemplates templates;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retryBase;
+    private final Duration retryMax;
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  List<NotificationChannel> channels,
+                                  NotificationTemplates templates,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.dispatch.batch-size:100}") int batchSize,
+                                  @Value("${notifications.dispatch.max-attempts:8}") int maxAttempts,
+                                  @Value("${notifications.dispatch.lease:PT1M}") Duration lease,
+                                  @Value("${notifications.dispatch.retry-base:PT5S}") Duration retryBase,
+                                  @Value("${notifications.dispatch.retry-max:PT10M}") Duration retryMax) {
+        this.notificationRepository = notificationRepository;
+        this.channels = channels.stream().collect(Collectors.toMap(NotificationChannel::name, Function.identity()));
+        this.templates = templates;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.retryBase = retryBase;
+        this.retryMax = retryMax;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatch.interval-ms:1000}")
+    public void dispatch() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (dispatchBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Notification dispatch failed, will retry on next run: {}", e.getMessage());
+        }
+    }
+
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingNotification> batch = notificationRepository.claimDue(now, now.plus(lease), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sent = new ArrayList<>();
+        List<DeliveryFailure> failed = new ArrayList<>();
+        for (PendingNotification notification : batch) {
+            String channelName = notification.channel() != null ? notification.channel() : DEFAULT_CHANNEL;
+            NotificationChannel channel = channels.get(channelName);
+            if (channel == null) {
+                failed.add(new DeliveryFailure(notification.notificationId(), "No adapter for channel " + channelName, null));
+                count(channelName, "failed");
+                continue;
+            }
+            try {
+                channel.deliver(notification.rendered(
+                        templates.render(notification.template(), notification.params(), notification.message())));
+                sent.add(notification.notificationId());
+                count(channelName, "sent");
+            } catch (Exception e) {
+                LocalDateTime retryAt = retryAt(notification.attempts() + 1, now);
+                failed.add(new DeliveryFailure(notification.notificationId(), describe(e), retryAt));
+                count(channelName, retryAt != null ? "retry" : "failed");
+                logger.debug("Delivery of notification {} over {} failed: {}", notification.notificationId(), channelName, e.toString());
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            notificationRepository.markSent(sent, LocalDateTime.now());
+        }
+        if (!failed.isEmpty()) {
+            notificationRepository.markFailed(failed);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Null once {@code attempt} reaches the limit. Otherwise base * 2^(attempt-1),
+     * capped at the maximum, of which a random half is waited so retries from a
+     * burst of failures spread out.
+     */
+    LocalDateTime retryAt(int attempt, LocalDateTime now) {
+        if (attempt >= maxAttempts) {
+            return null;
+        }
+        long delay = Math.min(retryMax.toMillis(), retryBase.toMillis() << Math.min(attempt - 1, 30));
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return now.plus(Duration.ofMillis(jittered));
+    }
+
+    private void count(String channel, String result) {
+        Counter.builder("notifications.dispatched")
+                .description("Notification delivery attempts by channel and outcome")
+                .tag("channel", channel)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String describe(Exception e) {
+        String description = e.getMessage() != null ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getClass().getName();
+        return description.length() > 1000 ? description.substring(0, 1000) : description;
+    }
+}
@@ -0,0 +1,164 @@
+package com.clinic.datalayer.reports;
+
+import com.clinic.datalayer.entities.AppointmentDailyCount;
+import com.clinic.datalayer.repositories.AppointmentDailyCountRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Appointment counts per doctor, day and status. Every change is written to the
+ * {@code appointment_daily_counts} table in the caller's transaction and added
+ * to an in-memory copy once that transaction commits, so reports can sum a few
+ * daily buckets instead of scanning appointments. The in-memory copy is
+ * (re)loaded from the table by {@link RollupVerifier}; until then it reports
+ * itself as not loaded.
+ *
+ * <p>A reload must not race a commit: a change committed between reading the
+ * table and swapping the copy would be lost, and one already read but applied
+ * after the swap would count twice. Each transaction therefore holds a shared
+ * lock from just before its commit until its changes are in memory, and a
+ * reload reads the table and swaps under the exclusive lock.
+ */
+@Component
+public class AppointmentRollup {
+
+    private final AppointmentDailyCountRepository dailyCountRepository;
+    private final TransactionTemplate reloadTransaction;
+    private final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+    private volatile Map<Long, NavigableMap<LocalDate, Map<String, LongAdder>>> counters;
+
+    public AppointmentRollup(AppointmentDailyCountRepository dailyCountRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.dailyCountRepository = dailyCountRepository;
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setReadOnly(true);
+    }
+
+    @Transactional
+    public void added(Long doctorId, LocalDate date, String status) {
+        record(doctorId, date, status, 1);
+    }
+
+    @Transactional
+    public void added(Long doctorId, LocalDate date, String status, long count) {
+        record(doctorId, date, status, count);
+    }
+
+    @Transactional
+    public void removed(Long doctorId, LocalDate date, String status) {
+        record(doctorId, date, status, -1);
+    }
+
+    @Transactional
+    public void statusChanged(Long doctorId, LocalDate date, String oldStatus, String newStatus) {
+        if (!Objects.equals(oldStatus, newStatus)) {
+            record(doctorId, date, oldStatus, -1);
+            record(doctorId, date, newStatus, 1);
+        }
+    }
+
+    public boolean isLoaded() {
+        return counters != null;
+    }
+
+    /**
+     * Sums the daily buckets of one doctor, or of every doctor when
+     * {@code doctorId} is not positive, between two inclusive dates; either date may be null.
+     * Results are keyed by doctor id, then status.
+     */
+    public Map<Long, Map<String, Long>> countByDoctorAndStatus(long doctorId, LocalDate from, LocalDate to) {
+        Map<Long, NavigableMap<LocalDate, Map<String, LongAdder>>> snapshot = counters;
+        Map<Long, Map<String, Long>> result = new TreeMap<>();
+        if (snapshot == null) {
+            return result;
+        }
+        snapshot.forEach((id, days) -> {
+            if (doctorId > 0 && doctorId != id) {
+                return;
+            }
+            NavigableMap<LocalDate, Map<String, LongAdder>> range = days;
+            if (from != null) {
+                range = range.tailMap(from, true);
+            }
+            if (to != null) {
+                range = range.headMap(to, true);
+            }
+            range.values().forEach(statuses -> statuses.forEach((status, adder) -> {
+                long count = adder.sum();
+                if (count != 0) {
+                    result.computeIfAbsent(id, k -> new TreeMap<>()).merge(status, count, Long::sum);
+                }
+            }));
+        });
+        return result;
+    }
+
+    /**
+     * Replaces the in-memory copy with the current contents of the table.
+     */
+    public void reload() {
+        // The connection is taken before the lock, so commits waiting on it cannot starve the reload of one
+        reloadTransaction.executeWithoutResult(status -> {
+            reloadLock.writeLock().lock();
+            try {
+                Map<Long, NavigableMap<LocalDate, Map<String, LongAdder>>> fresh = new ConcurrentHashMap<>();
+                for (AppointmentDailyCount row : dailyCountRepository.findAll()) {
+                    adder(fresh, row.getDoctorId(), row.getDate(), row.getStatus()).add(row.getAppointmentCount());
+                }
+                counters = fresh;
+            } finally {
+                reloadLock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void record(Long doctorId, LocalDate date, String status, long delta) {
+        dailyCountRepository.increment(doctorId, date, status, delta);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                reloadLock.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                Map<Long, NavigableMap<LocalDate, Map<String, LongAdder>>> snapshot = counters;
+                if (snapshot != null) {
+                    adder(snapshot, doctorId, date, status).add(delta);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (locked) {
+                    reloadLock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static LongAdder adder(Map<Long, NavigableMap<LocalDate, Map<String, LongAdder>>> counters,
+                                   Long doctorId, LocalDate date, String status) {
+        return counters.computeIfAbsent(doctorId, id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(date, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> new LongAdder());
+    }
+}
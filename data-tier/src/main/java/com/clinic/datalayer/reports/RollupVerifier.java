@@ -0,0 +1,92 @@
+package com.clinic.datalayer.reports;
+
+import com.clinic.datalayer.entities.AppointmentDailyCount;
+import com.clinic.datalayer.repositories.AppointmentDailyCountRepository;
+import com.clinic.datalayer.repositories.AppointmentRepository;
+import com.clinic.datalayer.repositories.DailyStatusCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes the daily rollups from {@code appointments} and repairs any row
+ * that has drifted, then reloads the in-memory counters. Runs once on startup,
+ * which also fills the table for appointments created before it existed, and
+ * then on {@code reports.rollup-verify-cron}.
+ */
+@Component
+public class RollupVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupVerifier.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentDailyCountRepository dailyCountRepository;
+    private final AppointmentRollup appointmentRollup;
+    private final TransactionTemplate snapshotTransaction;
+
+    public RollupVerifier(AppointmentRepository appointmentRepository,
+                          AppointmentDailyCountRepository dailyCountRepository,
+                          AppointmentRollup appointmentRollup,
+                          PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.dailyCountRepository = dailyCountRepository;
+        this.appointmentRollup = appointmentRollup;
+        // Both tables are read from one snapshot; a booking that touches a row
+        // being repaired makes the repair fail instead of overwriting it.
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        verify();
+    }
+
+    @Scheduled(cron = "${reports.rollup-verify-cron:0 30 3 * * *}")
+    public void verify() {
+        try {
+            Integer repaired = snapshotTransaction.execute(status -> repairDrift());
+            if (repaired != null && repaired > 0) {
+                logger.warn("Repaired {} drifted appointment rollup rows", repaired);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Appointment rollup verification failed, will retry on next run: {}", e.getMessage());
+        }
+        appointmentRollup.reload();
+    }
+
+    private int repairDrift() {
+        Map<AppointmentDailyCount.Key, Long> expected = new HashMap<>();
+        for (DailyStatusCount count : appointmentRepository.countByDoctorDateAndStatus()) {
+            expected.put(new AppointmentDailyCount.Key(count.doctorId(), count.date(), count.status()), count.count());
+        }
+
+        List<AppointmentDailyCount> drifted = new ArrayList<>();
+        for (AppointmentDailyCount row : dailyCountRepository.findAll()) {
+            Long actual = expected.remove(new AppointmentDailyCount.Key(row.getDoctorId(), row.getDate(), row.getStatus()));
+            long count = actual != null ? actual : 0L;
+            if (row.getAppointmentCount() != count) {
+                logger.debug("Rollup drift for doctor {} on {} ({}): stored {}, actual {}",
+                        row.getDoctorId(), row.getDate(), row.getStatus(), row.getAppointmentCount(), count);
+                row.setAppointmentCount(count);
+                drifted.add(row);
+            }
+        }
+        expected.forEach((key, count) ->
+                drifted.add(new AppointmentDailyCount(key.getDoctorId(), key.getDate(), key.getStatus(), count)));
+
+        dailyCountRepository.saveAll(drifted);
+        return drifted.size();
+    }
+}
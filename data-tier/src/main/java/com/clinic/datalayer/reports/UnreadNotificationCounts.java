@@ -0,0 +1,61 @@
+package com.clinic.datalayer.reports;
+
+import com.clinic.datalayer.entities.Notification;
+import com.clinic.datalayer.entities.NotificationUnreadCount;
+import com.clinic.datalayer.repositories.NotificationUnreadCountRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unread notifications per recipient, kept in {@code notification_unread_counts}
+ * and changed in the caller's transaction whenever a notification is created,
+ * read or deleted, so the unread badge is one primary-key lookup instead of a
+ * scan of the recipient's history. Every write path that creates a notification
+ * or moves one to {@code READ} must go through here.
+ */
+@Component
+public class UnreadNotificationCounts {
+
+    private final NotificationUnreadCountRepository unreadCountRepository;
+
+    public UnreadNotificationCounts(NotificationUnreadCountRepository unreadCountRepository) {
+        this.unreadCountRepository = unreadCountRepository;
+    }
+
+    @Transactional
+    public void added(Notification notification) {
+        if (!"READ".equals(notification.getStatus())) {
+            unreadCountRepository.increment(notification.getRecipientId(), notification.getRecipientType(), 1);
+        }
+    }
+
+    @Transactional
+    public void added(List<Notification> notifications) {
+        notifications.stream()
+                .filter(n -> !"READ".equals(n.getStatus()))
+                .collect(Collectors.groupingBy(n -> new NotificationUnreadCount.Key(n.getRecipientId(), n.getRecipientType()),
+                        Collectors.counting()))
+                .forEach((key, count) -> unreadCountRepository.increment(key.getRecipientId(), key.getRecipientType(), count));
+    }
+
+    /**
+     * Records {@code count} notifications of one recipient leaving the unread
+     * state, whether they were read or deleted.
+     */
+    @Transactional
+    public void removed(Long recipientId, String recipientType, long count) {
+        if (count > 0) {
+            unreadCountRepository.increment(recipientId, recipientType, -count);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long unread(Long recipientId, String recipientType) {
+        return unreadCountRepository.findById(new NotificationUnreadCount.Key(recipientId, recipientType))
+                .map(NotificationUnreadCount::getUnreadCount)
+                .orElse(0L);
+    }
+}
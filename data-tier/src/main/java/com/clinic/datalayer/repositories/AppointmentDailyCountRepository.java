@@ -0,0 +1,22 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.AppointmentDailyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+
+public interface AppointmentDailyCountRepository extends JpaRepository<AppointmentDailyCount, AppointmentDailyCount.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_counts (doctor_id, date, status, appointment_count) " +
+            "VALUES (:doctorId, :date, :status, :delta) " +
+            "ON CONFLICT (doctor_id, date, status) DO UPDATE " +
+            "SET appointment_count = appointment_daily_counts.appointment_count + EXCLUDED.appointment_count",
+            nativeQuery = true)
+    void increment(@Param("doctorId") Long doctorId, @Param("date") LocalDate date,
+                   @Param("status") String status, @Param("delta") long delta);
+}
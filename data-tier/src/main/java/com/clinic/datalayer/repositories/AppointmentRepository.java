@@ -1,7 +1,12 @@
 package com.clinic.datalayer.repositories;
 
 import com.clinic.datalayer.entities.Appointment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -9,8 +14,20 @@ import java.time.LocalDate;
 import java.util.List;
 
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment>,
+        AppointmentRepositoryCustom {
+
+    @Override
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    List<Appointment> findAll();
+
+    @Override
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    List<Appointment> findAll(Specification<Appointment> spec, Sort sort);
+
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
     List<Appointment> findByPatientPatientId(Long patientId);
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
     List<Appointment> findByDoctorDoctorId(Long doctorId);
     List<Appointment> findByStaffStaffId(Long staffId);
     List<Appointment> findByStatus(String status);
@@ -20,11 +37,30 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByPatientPatientIdAndStatus(Long patientId, String status);
     List<Appointment> findByDoctorDoctorIdAndStatus(Long doctorId, String status);
     
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
     @Query("SELECT a FROM Appointment a WHERE a.doctor.doctorId = :doctorId AND a.date = :date AND a.status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR')")
     List<Appointment> findActiveDoctorAppointmentsByDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
 
     @Query("SELECT a FROM Appointment a WHERE a.status IN ('SCHEDULED', 'CONFIRMED') ORDER BY a.date, a.startTime")
     List<Appointment> findAllUpcomingAppointments();
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
     @Query("SELECT a FROM Appointment a WHERE a.status = 'SCHEDULED' AND a.cancellationReason IS NOT NULL")
     List<Appointment> findPendingCancellations();
+
+    @Query("SELECT new com.clinic.datalayer.repositories.DailyStatusCount(a.doctor.doctorId, a.date, a.status, COUNT(a)) " +
+           "FROM Appointment a GROUP BY a.doctor.doctorId, a.date, a.status")
+    List<DailyStatusCount> countByDoctorDateAndStatus();
+
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    List<Appointment> findByAppointmentIdGreaterThanOrderByAppointmentId(Long afterId, Limit limit);
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    List<Appointment> findByPatientPatientIdAndAppointmentIdGreaterThanOrderByAppointmentId(Long patientId, Long afterId, Limit limit);
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    List<Appointment> findByDoctorDoctorIdAndAppointmentIdGreaterThanOrderByAppointmentId(Long doctorId, Long afterId, Limit limit);
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.doctorId = :doctorId AND a.date = :date AND a.status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR') AND a.appointmentId > :afterId ORDER BY a.appointmentId")
+    List<Appointment> findActiveDoctorAppointmentsByDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date, @Param("afterId") Long afterId, Limit limit);
+    @EntityGraph(Appointment.SUMMARY_GRAPH)
+    @Query("SELECT a FROM Appointment a WHERE a.status = 'SCHEDULED' AND a.cancellationReason IS NOT NULL AND a.appointmentId > :afterId ORDER BY a.appointmentId")
+    List<Appointment> findPendingCancellations(@Param("afterId") Long afterId, Limit limit);
 }
@@ -0,0 +1,15 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.Appointment;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Counts the appointments matching {@code filter}, grouped by doctor and status,
+     * in a single GROUP BY query. Only the counts leave the database.
+     */
+    List<DoctorStatusCount> countByDoctorAndStatus(Specification<Appointment> filter);
+}
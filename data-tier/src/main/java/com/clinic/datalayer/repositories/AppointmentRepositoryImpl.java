@@ -0,0 +1,39 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.Appointment;
+import com.clinic.datalayer.entities.Doctor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DoctorStatusCount> countByDoctorAndStatus(Specification<Appointment> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DoctorStatusCount> query = cb.createQuery(DoctorStatusCount.class);
+        Root<Appointment> appointment = query.from(Appointment.class);
+        Join<Appointment, Doctor> doctor = appointment.join("doctor");
+
+        query.select(cb.construct(DoctorStatusCount.class,
+                doctor.get("doctorId"), doctor.get("name"), appointment.get("status"), cb.count(appointment)));
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(appointment, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.groupBy(doctor.get("doctorId"), doctor.get("name"), appointment.get("status"));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.Appointment;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Building blocks for appointment filters. Each factory returns {@code null} when
+ * its argument is absent, so callers can chain every field with
+ * {@link Specification#and} and only the supplied ones reach the WHERE clause.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> hasPatient(long patientId) {
+        if (patientId <= 0) return null;
+        return (root, query, cb) -> cb.equal(root.get("patient").get("patientId"), patientId);
+    }
+
+    public static Specification<Appointment> hasDoctor(long doctorId) {
+        if (doctorId <= 0) return null;
+        return (root, query, cb) -> cb.equal(root.get("doctor").get("doctorId"), doctorId);
+    }
+
+    public static Specification<Appointment> hasStaff(long staffId) {
+        if (staffId <= 0) return null;
+        return (root, query, cb) -> cb.equal(root.get("staff").get("staffId"), staffId);
+    }
+
+    public static Specification<Appointment> statusIn(Collection<String> statuses) {
+        if (statuses.isEmpty()) return null;
+        if (statuses.size() == 1) {
+            String status = statuses.iterator().next();
+            return (root, query, cb) -> cb.equal(root.get("status"), status);
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Appointment> dateBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) return null;
+        if (from != null && from.equals(to)) {
+            return (root, query, cb) -> cb.equal(root.get("date"), from);
+        }
+        if (to == null) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get("date"), from);
+        }
+        if (from == null) {
+            return (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("date"), to);
+        }
+        return (root, query, cb) -> cb.between(root.<LocalDate>get("date"), from, to);
+    }
+}
@@ -0,0 +1,9 @@
+package com.clinic.datalayer.repositories;
+
+import java.time.LocalDateTime;
+
+public record ArchivedNotification(Long notificationId, Long appointmentId, Long staffId, Long recipientId,
+                                   String recipientType, String message, String template, String params,
+                                   String type, String status, String channel,
+                                   LocalDateTime createdAt, LocalDateTime sentAt, int attempts) {
+}
@@ -1,25 +1,74 @@
 package com.clinic.datalayer.repositories;
 
 import com.clinic.datalayer.entities.AvailableSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 
-public interface AvailableSlotRepository extends JpaRepository<AvailableSlot, Long> {
+public interface AvailableSlotRepository extends JpaRepository<AvailableSlot, Long>, JpaSpecificationExecutor<AvailableSlot> {
+
+    @Override
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findAll();
+
+    @Override
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findAll(Specification<AvailableSlot> spec, Sort sort);
+
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
     List<AvailableSlot> findByDoctorDoctorId(Long doctorId);
     List<AvailableSlot> findByDate(LocalDate date);
     List<AvailableSlot> findByStatus(String status);
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
     List<AvailableSlot> findByDoctorDoctorIdAndDate(Long doctorId, LocalDate date);
     List<AvailableSlot> findByDoctorDoctorIdAndStatus(Long doctorId, String status);
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
     List<AvailableSlot> findByDateAndStatus(LocalDate date, String status);
     
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
     @Query("SELECT s FROM AvailableSlot s WHERE s.doctor.doctorId = :doctorId AND s.date = :date AND s.status = 'AVAILABLE'")
     List<AvailableSlot> findAvailableSlotsByDoctorAndDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
     
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
     @Query("SELECT s FROM AvailableSlot s WHERE s.date >= :startDate AND s.status = 'AVAILABLE' ORDER BY s.date, s.startTime")
     List<AvailableSlot> findAllAvailableSlots(@Param("startDate") LocalDate startDate);
+
+    @Modifying
+    @Query("UPDATE AvailableSlot s SET s.status = 'BOOKED' WHERE s.slotId = :slotId AND s.status = 'AVAILABLE'")
+    int markBookedIfAvailable(@Param("slotId") Long slotId);
+
+    @Query("SELECT new com.clinic.datalayer.repositories.SlotKey(s.doctor.doctorId, s.date, s.startTime) " +
+           "FROM AvailableSlot s WHERE s.doctor.doctorId IN :doctorIds AND s.date BETWEEN :from AND :to")
+    List<SlotKey> findSlotKeys(@Param("doctorIds") Collection<Long> doctorIds,
+                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("UPDATE AvailableSlot s SET s.status = 'BOOKED' WHERE s.slotId IN :slotIds AND s.status = 'AVAILABLE'")
+    int markAllBookedIfAvailable(@Param("slotIds") Collection<Long> slotIds);
+
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findBySlotIdGreaterThanOrderBySlotId(Long afterId, Limit limit);
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findByDoctorDoctorIdAndSlotIdGreaterThanOrderBySlotId(Long doctorId, Long afterId, Limit limit);
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findByDoctorDoctorIdAndDateAndStatusAndSlotIdGreaterThanOrderBySlotId(Long doctorId, LocalDate date, String status, Long afterId, Limit limit);
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findByDateAndStatusAndSlotIdGreaterThanOrderBySlotId(LocalDate date, String status, Long afterId, Limit limit);
+    @EntityGraph(AvailableSlot.SUMMARY_GRAPH)
+    List<AvailableSlot> findByDateGreaterThanEqualAndStatusAndSlotIdGreaterThanOrderBySlotId(LocalDate startDate, String status, Long afterId, Limit limit);
+
+    @Query("SELECT new com.clinic.datalayer.repositories.DoctorCount(s.doctor.doctorId, COUNT(s)) FROM AvailableSlot s " +
+           "WHERE s.status = 'AVAILABLE' AND s.doctor.doctorId IN :doctorIds GROUP BY s.doctor.doctorId")
+    List<DoctorCount> countAvailableByDoctor(@Param("doctorIds") Collection<Long> doctorIds);
 }
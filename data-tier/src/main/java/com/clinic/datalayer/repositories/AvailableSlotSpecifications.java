@@ -0,0 +1,45 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.AvailableSlot;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Building blocks for slot filters; absent arguments yield {@code null} and drop
+ * out of the composed query, as in {@link AppointmentSpecifications}.
+ */
+public final class AvailableSlotSpecifications {
+
+    private AvailableSlotSpecifications() {
+    }
+
+    public static Specification<AvailableSlot> hasDoctor(long doctorId) {
+        if (doctorId <= 0) return null;
+        return (root, query, cb) -> cb.equal(root.get("doctor").get("doctorId"), doctorId);
+    }
+
+    public static Specification<AvailableSlot> statusIn(Collection<String> statuses) {
+        if (statuses.isEmpty()) return null;
+        if (statuses.size() == 1) {
+            String status = statuses.iterator().next();
+            return (root, query, cb) -> cb.equal(root.get("status"), status);
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<AvailableSlot> dateBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) return null;
+        if (from != null && from.equals(to)) {
+            return (root, query, cb) -> cb.equal(root.get("date"), from);
+        }
+        if (to == null) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get("date"), from);
+        }
+        if (from == null) {
+            return (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("date"), to);
+        }
+        return (root, query, cb) -> cb.between(root.<LocalDate>get("date"), from, to);
+    }
+}
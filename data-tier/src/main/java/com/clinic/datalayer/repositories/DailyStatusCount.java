@@ -0,0 +1,6 @@
+package com.clinic.datalayer.repositories;
+
+import java.time.LocalDate;
+
+public record DailyStatusCount(Long doctorId, LocalDate date, String status, Long count) {
+}
@@ -0,0 +1,4 @@
+package com.clinic.datalayer.repositories;
+
+public record DoctorCount(Long doctorId, Long count) {
+}
@@ -1,7 +1,11 @@
 package com.clinic.datalayer.repositories;
 
 import com.clinic.datalayer.entities.Doctor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +14,9 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByEmail(String email);
     Optional<Doctor> findByEmailAndPassword(String email, String password);
     boolean existsByEmail(String email);
+    List<Doctor> findByDoctorIdGreaterThanOrderByDoctorId(Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Doctor d SET d.password = :password WHERE d.doctorId = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
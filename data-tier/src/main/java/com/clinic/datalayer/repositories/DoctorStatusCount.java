@@ -0,0 +1,7 @@
+package com.clinic.datalayer.repositories;
+
+/**
+ * Number of appointments a doctor has in one status.
+ */
+public record DoctorStatusCount(Long doctorId, String doctorName, String status, Long count) {
+}
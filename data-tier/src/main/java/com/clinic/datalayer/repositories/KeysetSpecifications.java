@@ -0,0 +1,46 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.util.KeysetCursor;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * "Rows after the cursor" predicates. Combined with the matching {@link Sort} they
+ * let every page be served by an index range scan, however deep the page is.
+ */
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    public static <T> Specification<T> after(KeysetCursor cursor, String dateField, String timeField, String idField) {
+        return (root, query, cb) -> {
+            Path<LocalDate> date = root.get(dateField);
+            Path<LocalTime> time = root.get(timeField);
+            Path<Long> id = root.get(idField);
+            return cb.or(
+                cb.greaterThan(date, cursor.date()),
+                cb.and(cb.equal(date, cursor.date()), cb.greaterThan(time, cursor.time())),
+                cb.and(cb.equal(date, cursor.date()), cb.equal(time, cursor.time()), cb.greaterThan(id, cursor.id())));
+        };
+    }
+
+    public static <T> Specification<T> after(KeysetCursor cursor, String timestampField, String idField) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> timestamp = root.get(timestampField);
+            Path<Long> id = root.get(idField);
+            return cb.or(
+                cb.greaterThan(timestamp, cursor.dateTime()),
+                cb.and(cb.equal(timestamp, cursor.dateTime()), cb.greaterThan(id, cursor.id())));
+        };
+    }
+
+    public static Sort order(String... fields) {
+        return Sort.by(Sort.Direction.ASC, fields);
+    }
+}
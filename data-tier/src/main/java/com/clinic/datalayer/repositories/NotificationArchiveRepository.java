@@ -0,0 +1,11 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.NotificationArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+    List<NotificationArchive> findByRecipientIdAndRecipientTypeOrderByFirstNotificationId(Long recipientId, String recipientType);
+}
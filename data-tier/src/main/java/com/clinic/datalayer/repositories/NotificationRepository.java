@@ -1,15 +1,39 @@
 package com.clinic.datalayer.repositories;
 
 import com.clinic.datalayer.entities.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, JpaSpecificationExecutor<Notification>,
+        NotificationRepositoryCustom {
     List<Notification> findByRecipientIdAndRecipientType(Long recipientId, String recipientType);
     List<Notification> findByRecipientIdAndRecipientTypeAndStatus(Long recipientId, String recipientType, String status);
     List<Notification> findByAppointmentAppointmentId(Long appointmentId);
+    List<Notification> findByAppointmentAppointmentIdIn(Collection<Long> appointmentIds);
     List<Notification> findByStaffStaffId(Long staffId);
     List<Notification> findByStatus(String status);
     List<Notification> findByType(String type);
+
+    List<Notification> findByNotificationIdGreaterThanOrderByNotificationId(Long afterId, Limit limit);
+    List<Notification> findByRecipientIdAndRecipientTypeAndNotificationIdGreaterThanOrderByNotificationId(
+            Long recipientId, String recipientType, Long afterId, Limit limit);
+
+    // Conditional so concurrent readers decrement the unread count once; cleared so no stale copy is flushed back
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = 'READ' WHERE n.notificationId = :id AND n.status <> 'READ'")
+    int markRead(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = 'READ' " +
+            "WHERE n.recipientId = :recipientId AND n.recipientType = :recipientType " +
+            "AND n.status <> 'READ' AND n.notificationId <= :upToId")
+    int markReadUpTo(@Param("recipientId") Long recipientId, @Param("recipientType") String recipientType,
+                     @Param("upToId") Long upToId);
 }
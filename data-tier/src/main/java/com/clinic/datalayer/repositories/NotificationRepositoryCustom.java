@@ -0,0 +1,38 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.Notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Inserts all notifications as one JDBC batch. Generated ids are not read back.
+     */
+    void insertAll(List<Notification> notifications);
+
+    /**
+     * Claims up to {@code limit} PENDING notifications due by {@code now} and
+     * makes them due again only at {@code leaseUntil}, so a dispatcher that dies
+     * mid-batch has its rows picked up again once the lease runs out. Rows
+     * locked by a concurrent claim are skipped rather than waited for.
+     */
+    List<PendingNotification> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+
+    void markSent(List<Long> notificationIds, LocalDateTime sentAt);
+
+    /**
+     * Failures with a {@code retryAt} stay PENDING until then; the rest become FAILED.
+     */
+    void markFailed(List<DeliveryFailure> failures);
+
+    /**
+     * Locks up to {@code limit} READ notifications created before
+     * {@code createdBefore}, oldest first, skipping rows another transaction holds.
+     */
+    List<ArchivedNotification> lockReadBefore(LocalDateTime createdBefore, int limit);
+
+    record DeliveryFailure(Long notificationId, String error, LocalDateTime retryAt) {
+    }
+}
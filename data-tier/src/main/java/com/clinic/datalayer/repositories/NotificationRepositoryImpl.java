@@ -0,0 +1,132 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.Notification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    // Identity keys keep Hibernate from batching these inserts, so they go through JDBC directly
+    private static final String INSERT = "INSERT INTO notifications " +
+            "(appointment_id, staff_id, recipient_id, recipient_type, message, type, status, channel, created_at, " +
+            "attempts, next_attempt_at, template, params) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)";
+
+    // Locks the due rows, skipping any another dispatcher holds, and pushes them out by the lease in the same statement
+    private static final String CLAIM_DUE = "UPDATE notifications n SET next_attempt_at = ? " +
+            "FROM (SELECT notification_id FROM notifications " +
+            "      WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+            "      ORDER BY next_attempt_at, notification_id LIMIT ? FOR UPDATE SKIP LOCKED) due " +
+            "WHERE n.notification_id = due.notification_id " +
+            "RETURNING n.notification_id, n.appointment_id, n.recipient_id, n.recipient_type, n.channel, n.type, " +
+            "n.message, n.template, n.params, n.attempts";
+
+    private static final String MARK_SENT = "UPDATE notifications " +
+            "SET status = 'SENT', sent_at = ?, attempts = attempts + 1, last_error = NULL " +
+            "WHERE notification_id = ? AND status = 'PENDING'";
+
+    private static final String MARK_FAILED = "UPDATE notifications " +
+            "SET status = ?, next_attempt_at = ?, attempts = attempts + 1, last_error = ? " +
+            "WHERE notification_id = ? AND status = 'PENDING'";
+
+    private static final String LOCK_READ_BEFORE = "SELECT notification_id, appointment_id, staff_id, recipient_id, " +
+            "recipient_type, message, template, params, type, status, channel, created_at, sent_at, attempts " +
+            "FROM notifications WHERE status = 'READ' AND created_at < ? " +
+            "ORDER BY created_at, notification_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    NotificationRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Notification> notifications) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT, notifications, notifications.size(), (statement, notification) -> {
+            if (notification.getAppointment() != null) {
+                statement.setLong(1, notification.getAppointment().getAppointmentId());
+            } else {
+                statement.setNull(1, Types.BIGINT);
+            }
+            if (notification.getStaff() != null) {
+                statement.setLong(2, notification.getStaff().getStaffId());
+            } else {
+                statement.setNull(2, Types.BIGINT);
+            }
+            statement.setLong(3, notification.getRecipientId());
+            statement.setString(4, notification.getRecipientType());
+            statement.setString(5, notification.getMessage());
+            statement.setString(6, notification.getType());
+            statement.setString(7, notification.getStatus());
+            statement.setString(8, notification.getChannel());
+            LocalDateTime createdAt = notification.getCreatedAt() != null ? notification.getCreatedAt() : now;
+            statement.setTimestamp(9, Timestamp.valueOf(createdAt));
+            statement.setTimestamp(10, Timestamp.valueOf(notification.getNextAttemptAt() != null ? notification.getNextAttemptAt() : createdAt));
+            statement.setString(11, notification.getTemplate());
+            statement.setString(12, notification.getParams());
+        });
+    }
+
+    @Override
+    public List<PendingNotification> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        return jdbcTemplate.query(CLAIM_DUE, (rs, row) -> new PendingNotification(
+                        rs.getLong("notification_id"),
+                        rs.getObject("appointment_id", Long.class),
+                        rs.getLong("recipient_id"),
+                        rs.getString("recipient_type"),
+                        rs.getString("channel"),
+                        rs.getString("type"),
+                        rs.getString("message"),
+                        rs.getString("template"),
+                        rs.getString("params"),
+                        rs.getInt("attempts")),
+                Timestamp.valueOf(leaseUntil), Timestamp.valueOf(now), limit);
+    }
+
+    @Override
+    public void markSent(List<Long> notificationIds, LocalDateTime sentAt) {
+        jdbcTemplate.batchUpdate(MARK_SENT, notificationIds, notificationIds.size(), (statement, id) -> {
+            statement.setTimestamp(1, Timestamp.valueOf(sentAt));
+            statement.setLong(2, id);
+        });
+    }
+
+    @Override
+    public void markFailed(List<DeliveryFailure> failures) {
+        jdbcTemplate.batchUpdate(MARK_FAILED, failures, failures.size(), (statement, failure) -> {
+            statement.setString(1, failure.retryAt() != null ? "PENDING" : "FAILED");
+            if (failure.retryAt() != null) {
+                statement.setTimestamp(2, Timestamp.valueOf(failure.retryAt()));
+            } else {
+                statement.setNull(2, Types.TIMESTAMP);
+            }
+            statement.setString(3, failure.error());
+            statement.setLong(4, failure.notificationId());
+        });
+    }
+
+    @Override
+    public List<ArchivedNotification> lockReadBefore(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.query(LOCK_READ_BEFORE, (rs, row) -> new ArchivedNotification(
+                        rs.getLong("notification_id"),
+                        rs.getObject("appointment_id", Long.class),
+                        rs.getObject("staff_id", Long.class),
+                        rs.getLong("recipient_id"),
+                        rs.getString("recipient_type"),
+                        rs.getString("message"),
+                        rs.getString("template"),
+                        rs.getString("params"),
+                        rs.getString("type"),
+                        rs.getString("status"),
+                        rs.getString("channel"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("sent_at") != null ? rs.getTimestamp("sent_at").toLocalDateTime() : null,
+                        rs.getInt("attempts")),
+                Timestamp.valueOf(createdBefore), limit);
+    }
+}
@@ -0,0 +1,20 @@
+package com.clinic.datalayer.repositories;
+
+import com.clinic.datalayer.entities.NotificationUnreadCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface NotificationUnreadCountRepository extends JpaRepository<NotificationUnreadCount, NotificationUnreadCount.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counts (recipient_id, recipient_type, unread_count) " +
+            "VALUES (:recipientId, :recipientType, GREATEST(:delta, 0)) " +
+            "ON CONFLICT (recipient_id, recipient_type) DO UPDATE " +
+            "SET unread_count = GREATEST(notification_unread_counts.unread_count + :delta, 0)",
+            nativeQuery = true)
+    void increment(@Param("recipientId") Long recipientId, @Param("recipientType") String recipientType,
+                   @Param("delta") long delta);
+}
@@ -1,7 +1,12 @@
 package com.clinic.datalayer.repositories;
 
 import com.clinic.datalayer.entities.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -9,4 +14,9 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByEmail(String email);
     Optional<Patient> findByEmailAndPassword(String email, String password);
     boolean existsByEmail(String email);
+    List<Patient> findByPatientIdGreaterThanOrderByPatientId(Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Patient p SET p.password = :password WHERE p.patientId = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
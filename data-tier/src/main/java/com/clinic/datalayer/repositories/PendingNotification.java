@@ -0,0 +1,15 @@
+package com.clinic.datalayer.repositories;
+
+/**
+ * {@code message} holds the stored text as read from the row; for templated
+ * notifications it is null until the dispatcher renders it with {@link #rendered}.
+ */
+public record PendingNotification(Long notificationId, Long appointmentId, Long recipientId, String recipientType,
+                                  String channel, String type, String message, String template, String params,
+                                  int attempts) {
+
+    public PendingNotification rendered(String text) {
+        return new PendingNotification(notificationId, appointmentId, recipientId, recipientType, channel, type, text,
+                template, params, attempts);
+    }
+}
@@ -0,0 +1,7 @@
+package com.clinic.datalayer.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record SlotKey(Long doctorId, LocalDate date, LocalTime startTime) {
+}
@@ -1,7 +1,11 @@
 package com.clinic.datalayer.repositories;
 
 import com.clinic.datalayer.entities.Staff;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,9 @@ public interface StaffRepository extends JpaRepository<Staff, Long> {
     Optional<Staff> findByEmailAndPassword(String email, String password);
     List<Staff> findByRole(String role);
     boolean existsByEmail(String email);
+    List<Staff> findByStaffIdGreaterThanOrderByStaffId(Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Staff s SET s.password = :password WHERE s.staffId = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
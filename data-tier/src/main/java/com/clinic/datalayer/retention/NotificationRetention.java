@@ -0,0 +1,195 @@
+package com.clinic.datalayer.retention;
+
+import com.clinic.datalayer.entities.NotificationArchive;
+import com.clinic.datalayer.repositories.ArchivedNotification;
+import com.clinic.datalayer.repositories.NotificationArchiveRepository;
+import com.clinic.datalayer.repositories.NotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the hot {@code notifications} table to what inboxes still show. READ
+ * notifications created more than {@code notifications.retention.read-after}
+ * ago are moved to {@code notification_archive} as gzip-compressed JSON lines,
+ * one archive row per recipient per batch, and deleted in the same transaction.
+ * Batches hold at most {@code batch-size} rows, locked with SKIP LOCKED so a
+ * concurrent run or a user action never waits on them, and a run stops after
+ * {@code max-batches-per-run} so a large backlog is worked off over several nights.
+ * Unread, pending and failed notifications are never touched.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.retention.enabled", matchIfMissing = true)
+public class NotificationRetention {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetention.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration readAfter;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long batchPauseMillis;
+    private final Timer batchTimer;
+    private final Counter archivedRows;
+
+    public NotificationRetention(NotificationRepository notificationRepository,
+                                 NotificationArchiveRepository archiveRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notifications.retention.read-after:P90D}") Duration readAfter,
+                                 @Value("${notifications.retention.batch-size:1000}") int batchSize,
+                                 @Value("${notifications.retention.max-batches-per-run:500}") int maxBatchesPerRun,
+                                 @Value("${notifications.retention.batch-pause-ms:50}") long batchPauseMillis) {
+        this.notificationRepository = notificationRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.readAfter = readAfter;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.batchPauseMillis = batchPauseMillis;
+        this.batchTimer = Timer.builder("notifications.retention.batch")
+                .description("Time to archive and delete one batch of expired notifications")
+                .register(meterRegistry);
+        this.archivedRows = Counter.builder("notifications.archived")
+                .description("Notifications moved from the hot table to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        try {
+            Run run = run();
+            if (run.archived() > 0) {
+                logger.info("Archived {} READ notifications older than {} in {} batches, {} ms ({} rows/s), {} KiB JSON as {} KiB gzip",
+                        run.archived(), readAfter, run.batches(), run.elapsed().toMillis(), Math.round(run.rowsPerSecond()),
+                        run.jsonBytes() / 1024, run.compressedBytes() / 1024);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Notification retention failed, will retry on next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives batch after batch until one comes back short or the per-run limit is reached.
+     */
+    public Run run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(readAfter);
+        long started = System.nanoTime();
+        int batches = 0;
+        long archived = 0;
+        long jsonBytes = 0;
+        long compressedBytes = 0;
+        while (batches < maxBatchesPerRun) {
+            Batch batch = batchTimer.record(() -> transactionTemplate.execute(status -> archiveBatch(cutoff)));
+            batches++;
+            archived += batch.rows();
+            jsonBytes += batch.jsonBytes();
+            compressedBytes += batch.compressedBytes();
+            archivedRows.increment(batch.rows());
+            if (batch.rows() < batchSize) {
+                break;
+            }
+            if (batchPauseMillis > 0) {
+                try {
+                    // Lets autovacuum and foreground writes keep up with a long backlog
+                    Thread.sleep(batchPauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return new Run(archived, batches, jsonBytes, compressedBytes, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private Batch archiveBatch(LocalDateTime cutoff) {
+        List<ArchivedNotification> rows = notificationRepository.lockReadBefore(cutoff, batchSize);
+        if (rows.isEmpty()) {
+            return new Batch(0, 0, 0);
+        }
+
+        Map<Recipient, List<ArchivedNotification>> byRecipient = new LinkedHashMap<>();
+        for (ArchivedNotification row : rows) {
+            byRecipient.computeIfAbsent(new Recipient(row.recipientId(), row.recipientType()), r -> new ArrayList<>()).add(row);
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<NotificationArchive> archives = new ArrayList<>(byRecipient.size());
+        long jsonBytes = 0;
+        long compressedBytes = 0;
+        for (Map.Entry<Recipient, List<ArchivedNotification>> entry : byRecipient.entrySet()) {
+            List<ArchivedNotification> notifications = entry.getValue();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                for (ArchivedNotification notification : notifications) {
+                    byte[] line = objectMapper.writeValueAsBytes(notification);
+                    gzip.write(line);
+                    gzip.write('\n');
+                    jsonBytes += line.length + 1;
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize notification for the archive", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compressedBytes += compressed.size();
+
+            ArchivedNotification first = notifications.get(0);
+            ArchivedNotification last = notifications.get(notifications.size() - 1);
+            NotificationArchive archive = new NotificationArchive();
+            archive.setRecipientId(entry.getKey().recipientId());
+            archive.setRecipientType(entry.getKey().recipientType());
+            archive.setFirstNotificationId(notifications.stream().mapToLong(ArchivedNotification::notificationId).min().orElseThrow());
+            archive.setLastNotificationId(notifications.stream().mapToLong(ArchivedNotification::notificationId).max().orElseThrow());
+            // Rows come back oldest first
+            archive.setOldestCreatedAt(first.createdAt());
+            archive.setNewestCreatedAt(last.createdAt());
+            archive.setNotificationCount(notifications.size());
+            archive.setArchivedAt(archivedAt);
+            archive.setPayload(compressed.toByteArray());
+            archives.add(archive);
+        }
+
+        archiveRepository.saveAll(archives);
+        notificationRepository.deleteAllByIdInBatch(rows.stream().map(ArchivedNotification::notificationId).toList());
+        return new Batch(rows.size(), jsonBytes, compressedBytes);
+    }
+
+    private record Recipient(Long recipientId, String recipientType) {
+    }
+
+    private record Batch(int rows, long jsonBytes, long compressedBytes) {
+    }
+
+    public record Run(long archived, int batches, long jsonBytes, long compressedBytes, Duration elapsed) {
+
+        public double rowsPerSecond() {
+            return elapsed.isZero() ? 0 : archived * 1_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+}
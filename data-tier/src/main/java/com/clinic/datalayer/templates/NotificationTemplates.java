@@ -0,0 +1,125 @@
+package com.clinic.datalayer.templates;
+
+import com.clinic.datalayer.entities.Notification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Text for system-generated notifications. Those rows store only a template
+ * code and its parameters, joined with the ASCII unit separator, and are
+ * rendered whenever they are read or delivered. Manual notifications and rows
+ * written before templates existed keep their text in {@code message}.
+ *
+ * <p>Template text may change between releases; parameters are positional
+ * ({@code {0}}, {@code {1}}, ...), so a wording change applies to every stored
+ * notification without touching the table. Each template is parsed once into
+ * literal and parameter segments on first use.
+ */
+@Component
+public class NotificationTemplates {
+
+    public static final String BOOKING_CONFIRMATION = "BOOKING_CONFIRMATION";
+    public static final String CANCELLATION = "CANCELLATION";
+    public static final String STATUS_UPDATE = "STATUS_UPDATE";
+    public static final String REASSIGNMENT = "REASSIGNMENT";
+
+    private static final char SEPARATOR = '\u001F';
+
+    private static final Map<String, String> TEMPLATES = Map.of(
+            BOOKING_CONFIRMATION, "Your appointment has been booked for {0} at {1}",
+            CANCELLATION, "Appointment cancelled. Reason: {0}",
+            STATUS_UPDATE, "Appointment status updated to: {0}",
+            REASSIGNMENT, "Appointment reassigned to Dr. {0}");
+
+    private final Map<String, Compiled> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Packs parameters for storage. Separator characters inside a value are replaced by spaces.
+     */
+    public static String params(Object... values) {
+        StringBuilder params = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                params.append(SEPARATOR);
+            }
+            params.append(String.valueOf(values[i]).replace(SEPARATOR, ' '));
+        }
+        return params.toString();
+    }
+
+    public String render(Notification notification) {
+        return render(notification.getTemplate(), notification.getParams(), notification.getMessage());
+    }
+
+    /**
+     * The rendered template, or {@code message} when the row has no template.
+     */
+    public String render(String template, String params, String message) {
+        if (template == null) {
+            return message;
+        }
+        String text = TEMPLATES.get(template);
+        if (text == null) {
+            // A template this build does not know; show what there is rather than nothing
+            return message != null ? message : template + ": " + (params != null ? params.replace(SEPARATOR, ' ') : "");
+        }
+        return compiled.computeIfAbsent(template, code -> Compiled.parse(text)).render(split(params));
+    }
+
+    private static String[] split(String params) {
+        if (params == null || params.isEmpty()) {
+            return new String[0];
+        }
+        List<String> values = new ArrayList<>();
+        int start = 0;
+        for (int i = params.indexOf(SEPARATOR); i >= 0; i = params.indexOf(SEPARATOR, start)) {
+            values.add(params.substring(start, i));
+            start = i + 1;
+        }
+        values.add(params.substring(start));
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * {@code literals} has one more entry than {@code slots}; rendering alternates
+     * literal, parameter, literal, ..., literal.
+     */
+    private record Compiled(String[] literals, int[] slots, int length) {
+
+        static Compiled parse(String text) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < text.length()) {
+                int close = text.charAt(i) == '{' ? text.indexOf('}', i) : -1;
+                if (close > i + 1 && text.substring(i + 1, close).chars().allMatch(Character::isDigit)) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    slots.add(Integer.parseInt(text.substring(i + 1, close)));
+                    i = close + 1;
+                } else {
+                    literal.append(text.charAt(i++));
+                }
+            }
+            literals.add(literal.toString());
+            return new Compiled(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray(),
+                    literals.stream().mapToInt(String::length).sum());
+        }
+
+        String render(String[] params) {
+            StringBuilder rendered = new StringBuilder(length + 16 * slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                rendered.append(literals[i]);
+                if (slots[i] < params.length) {
+                    rendered.append(params[slots[i]]);
+                }
+            }
+            return rendered.append(literals[slots.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.clinic.datalayer.tracing;
+
+import com.clinic.tracing.RecentTraces;
+import com.clinic.tracing.TraceWaterfall;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/traces} lists recent traces; {@code /actuator/traces/{traceId}}
+ * renders one as a text waterfall. SQL statements repeated under the same parent
+ * span are listed at the end, which is how N+1 loads show up.
+ */
+@Component
+@Endpoint(id = "traces")
+@Import(RecentTraces.class)
+public class TracesEndpoint {
+
+    private final RecentTraces recentTraces;
+
+    public TracesEndpoint(RecentTraces recentTraces) {
+        this.recentTraces = recentTraces;
+    }
+
+    @ReadOperation
+    public List<RecentTraces.Summary> traces() {
+        return recentTraces.summaries();
+    }
+
+    @ReadOperation(produces = "text/plain")
+    public String trace(@Selector String traceId) {
+        return recentTraces.spans(traceId).map(spans -> TraceWaterfall.render(spans, TracesEndpoint::statement)).orElse(null);
+    }
+
+    // The SQL of a JDBC query span
+    private static String statement(SpanData span) {
+        for (Map.Entry<?, Object> attribute : span.getAttributes().asMap().entrySet()) {
+            if (attribute.getKey().toString().startsWith("jdbc.query")) {
+                return attribute.getValue().toString();
+            }
+        }
+        return null;
+    }
+}
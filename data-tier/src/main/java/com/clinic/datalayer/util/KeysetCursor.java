@@ -0,0 +1,37 @@
+package com.clinic.datalayer.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page, in the sort order {@code (date, time, id)}.
+ * Clients only ever see the encoded form and hand it back unchanged.
+ */
+public record KeysetCursor(LocalDate date, LocalTime time, long id) {
+
+    public static KeysetCursor of(LocalDateTime dateTime, long id) {
+        return new KeysetCursor(dateTime.toLocalDate(), dateTime.toLocalTime(), id);
+    }
+
+    public LocalDateTime dateTime() {
+        return LocalDateTime.of(date, time);
+    }
+
+    public String encode() {
+        String raw = date + "|" + time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new KeysetCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
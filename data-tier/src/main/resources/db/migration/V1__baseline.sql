@@ -0,0 +1,64 @@
+-- Schema as previously maintained by hibernate.ddl-auto=update. Existing databases
+-- are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+CREATE TABLE doctors (
+    doctor_id      bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           varchar(255) NOT NULL,
+    specialization varchar(255) NOT NULL,
+    email          varchar(255) NOT NULL UNIQUE,
+    password       varchar(255) NOT NULL
+);
+
+CREATE TABLE patients (
+    patient_id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       varchar(255) NOT NULL,
+    email      varchar(255) NOT NULL UNIQUE,
+    phone      varchar(255),
+    password   varchar(255) NOT NULL
+);
+
+CREATE TABLE staff (
+    staff_id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name     varchar(255) NOT NULL,
+    email    varchar(255) NOT NULL UNIQUE,
+    role     varchar(255) NOT NULL,
+    password varchar(255) NOT NULL
+);
+
+CREATE SEQUENCE available_slots_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE available_slots (
+    slot_id    bigint PRIMARY KEY,
+    doctor_id  bigint       NOT NULL REFERENCES doctors (doctor_id),
+    date       date         NOT NULL,
+    start_time time(6)      NOT NULL,
+    end_time   time(6)      NOT NULL,
+    status     varchar(255) NOT NULL
+);
+
+CREATE TABLE appointments (
+    appointment_id      bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    patient_id          bigint       NOT NULL REFERENCES patients (patient_id),
+    doctor_id           bigint       NOT NULL REFERENCES doctors (doctor_id),
+    slot_id             bigint REFERENCES available_slots (slot_id),
+    date                date         NOT NULL,
+    start_time          time(6)      NOT NULL,
+    end_time            time(6)      NOT NULL,
+    status              varchar(255) NOT NULL,
+    type                varchar(255),
+    staff_id            bigint REFERENCES staff (staff_id),
+    cancellation_reason varchar(255)
+);
+
+CREATE TABLE notifications (
+    notification_id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    appointment_id  bigint REFERENCES appointments (appointment_id),
+    staff_id        bigint REFERENCES staff (staff_id),
+    recipient_id    bigint        NOT NULL,
+    recipient_type  varchar(255)  NOT NULL,
+    message         varchar(1000) NOT NULL,
+    type            varchar(255)  NOT NULL,
+    status          varchar(255)  NOT NULL,
+    channel         varchar(255),
+    created_at      timestamp(6)  NOT NULL
+);
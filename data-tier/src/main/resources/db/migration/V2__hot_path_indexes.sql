@@ -0,0 +1,39 @@
+-- Slot ids switched from an identity column to available_slots_seq; databases that
+-- were baselined still hand out ids from the old identity, so move the sequence past them.
+CREATE SEQUENCE IF NOT EXISTS available_slots_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('available_slots_seq', GREATEST((SELECT max(slot_id) FROM available_slots), 1));
+
+-- Doctor/day slot lookups, availability counts
+CREATE INDEX idx_available_slots_doctor_date_status ON available_slots (doctor_id, date, status);
+-- Open slot listings ordered by time; booked slots are the bulk of the table and stay out of it
+CREATE INDEX idx_available_slots_open ON available_slots (date, start_time) WHERE status = 'AVAILABLE';
+
+-- Doctor schedules, daily rollup rebuilds
+CREATE INDEX idx_appointments_doctor_date_status ON appointments (doctor_id, date, status);
+CREATE INDEX idx_appointments_patient ON appointments (patient_id);
+CREATE INDEX idx_appointments_upcoming ON appointments (date, start_time) WHERE status IN ('SCHEDULED', 'CONFIRMED');
+
+-- A slot holds at most one live appointment. Cancelled appointments keep their slot_id
+-- while the slot is released, so the constraint has to leave them out; drop any plain
+-- unique key Hibernate generated for the one-to-one mapping.
+DO $$
+DECLARE
+    c record;
+BEGIN
+    FOR c IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'appointments'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 'slot_id'
+    LOOP
+        EXECUTE format('ALTER TABLE appointments DROP CONSTRAINT %I', c.conname);
+    END LOOP;
+END $$;
+CREATE UNIQUE INDEX uq_appointments_live_slot ON appointments (slot_id) WHERE status NOT LIKE 'CANCELLED%';
+
+-- Notification inbox and per-appointment lookups
+CREATE INDEX idx_notifications_recipient ON notifications (recipient_id, recipient_type, status);
+CREATE INDEX idx_notifications_appointment ON notifications (appointment_id);
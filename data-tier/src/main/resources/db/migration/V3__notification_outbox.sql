@@ -0,0 +1,12 @@
+-- Delivery bookkeeping for the notification outbox (outbox.NotificationDispatcher)
+ALTER TABLE notifications
+    ADD COLUMN attempts        integer NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at timestamp(6),
+    ADD COLUMN sent_at         timestamp(6),
+    ADD COLUMN last_error      varchar(1000);
+
+-- Rows written before the dispatcher existed become due immediately
+UPDATE notifications SET next_attempt_at = created_at WHERE status = 'PENDING';
+
+-- The dispatcher's claim query; delivered notifications leave the index
+CREATE INDEX idx_notifications_outbox ON notifications (next_attempt_at, notification_id) WHERE status = 'PENDING';
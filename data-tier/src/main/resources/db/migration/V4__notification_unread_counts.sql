@@ -0,0 +1,13 @@
+-- Unread notifications per recipient, maintained by reports.UnreadNotificationCounts
+CREATE TABLE notification_unread_counts (
+    recipient_id   bigint       NOT NULL,
+    recipient_type varchar(255) NOT NULL,
+    unread_count   bigint       NOT NULL,
+    PRIMARY KEY (recipient_id, recipient_type)
+);
+
+INSERT INTO notification_unread_counts (recipient_id, recipient_type, unread_count)
+SELECT recipient_id, recipient_type, count(*)
+FROM notifications
+WHERE status <> 'READ'
+GROUP BY recipient_id, recipient_type;
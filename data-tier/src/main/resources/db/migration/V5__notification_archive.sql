@@ -0,0 +1,19 @@
+-- READ notifications past retention, moved out of the hot table by retention.NotificationRetention.
+-- Each row is one recipient's share of a retention batch as gzip-compressed JSON lines.
+CREATE TABLE notification_archive (
+    archive_id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient_id          bigint       NOT NULL,
+    recipient_type        varchar(255) NOT NULL,
+    first_notification_id bigint       NOT NULL,
+    last_notification_id  bigint       NOT NULL,
+    oldest_created_at     timestamp(6) NOT NULL,
+    newest_created_at     timestamp(6) NOT NULL,
+    notification_count    integer      NOT NULL,
+    archived_at           timestamp(6) NOT NULL,
+    payload               bytea        NOT NULL
+);
+
+CREATE INDEX idx_notification_archive_recipient ON notification_archive (recipient_id, recipient_type);
+
+-- The retention scan; unread and undelivered notifications stay out of it
+CREATE INDEX idx_notifications_read_age ON notifications (created_at, notification_id) WHERE status = 'READ';
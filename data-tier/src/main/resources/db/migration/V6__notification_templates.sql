@@ -0,0 +1,6 @@
+-- System notifications store a template code and its parameters (templates.NotificationTemplates)
+-- and are rendered when read; only manual notifications and older rows keep their text in message
+ALTER TABLE notifications
+    ADD COLUMN template varchar(64),
+    ADD COLUMN params   varchar(1000),
+    ALTER COLUMN message DROP NOT NULL;
@@ -0,0 +1,10 @@
+-- Daily appointment rollups, maintained by reports.AppointmentRollup. Databases that ran
+-- under ddl-auto=update before the migrations may already have the table; either way
+-- reports.RollupVerifier fills and repairs it from appointments on startup.
+CREATE TABLE IF NOT EXISTS appointment_daily_counts (
+    doctor_id         bigint       NOT NULL,
+    date              date         NOT NULL,
+    status            varchar(255) NOT NULL,
+    appointment_count bigint       NOT NULL,
+    PRIMARY KEY (doctor_id, date, status)
+);
@@ -0,0 +1,5 @@
+-- Appointment ids move from the identity column to a pooled sequence, as slot ids did in V2,
+-- so batch bookings insert in JDBC batches instead of one round trip per row.
+CREATE SEQUENCE IF NOT EXISTS appointments_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('appointments_seq', GREATEST((SELECT max(appointment_id) FROM appointments), 1));
+ALTER TABLE appointments ALTER COLUMN appointment_id DROP IDENTITY IF EXISTS;
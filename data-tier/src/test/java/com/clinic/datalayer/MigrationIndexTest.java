@@ -0,0 +1,137 @@
+package com.clinic.datalayer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations against embedded PostgreSQL and checks that the hot
+ * repository queries are served by the indexes they were written for. The
+ * context only starts if the migrated schema passes {@code ddl-auto=validate}.
+ * Sequential scans are disabled for the EXPLAINs so the planner picks an index
+ * whenever one applies. The tables are first filled and analyzed with a spread
+ * of doctors, recipients and statuses; on empty tables the small partial
+ * indexes win every plan whether or not they fit the query.
+ */
+@SpringBootTest
+@DisplayName("Migration Index Tests")
+class MigrationIndexTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabase.register(registry, "migration_index_test");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM doctors WHERE doctor_id >= 1000", Long.class) > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO doctors (doctor_id, name, specialization, email, password) " +
+                "SELECT id, 'Dr. ' || id, 'General', 'doctor' || id || '@clinic.test', 'x' FROM generate_series(1000, 1049) id");
+        // 50 doctors x 200 slots over 100 days, a third of them still open
+        jdbcTemplate.update("INSERT INTO available_slots (slot_id, doctor_id, date, start_time, end_time, status) " +
+                "SELECT 10000 + n, 1000 + n % 50, DATE '2030-01-01' + (n / 50) % 100, TIME '08:00' + (n / 5000) * INTERVAL '30 minutes', " +
+                "TIME '08:30' + (n / 5000) * INTERVAL '30 minutes', CASE WHEN n % 3 = 0 THEN 'AVAILABLE' ELSE 'BOOKED' END " +
+                "FROM generate_series(0, 9999) n");
+        // 2000 recipients with 10 notifications each: mostly READ, some SENT, one in ten PENDING
+        jdbcTemplate.update("INSERT INTO notifications (recipient_id, recipient_type, message, type, status, channel, created_at, next_attempt_at) " +
+                "SELECT n % 2000, 'PATIENT', 'm', 'REMINDER', CASE WHEN n % 10 = 0 THEN 'PENDING' WHEN n % 10 < 4 THEN 'SENT' ELSE 'READ' END, " +
+                "'EMAIL', TIMESTAMP '2029-01-01' + n * INTERVAL '1 minute', TIMESTAMP '2029-01-01' + n * INTERVAL '1 minute' " +
+                "FROM generate_series(0, 19999) n");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("Doctor/day slot lookups use the slot composite index")
+    void slotsByDoctorAndDate() {
+        assertUsesIndex("SELECT * FROM available_slots WHERE doctor_id = 1 AND date = DATE '2030-01-07' AND status = 'AVAILABLE'",
+                "idx_available_slots_doctor_date_status", "idx_available_slots_open");
+        assertUsesIndex("SELECT doctor_id, count(*) FROM available_slots WHERE status = 'AVAILABLE' AND doctor_id IN (1, 2) GROUP BY doctor_id",
+                "idx_available_slots_doctor_date_status");
+    }
+
+    @Test
+    @DisplayName("Open slot listings use the partial AVAILABLE index")
+    void openSlots() {
+        assertUsesIndex("SELECT * FROM available_slots WHERE date >= DATE '2030-01-07' AND status = 'AVAILABLE' ORDER BY date, start_time",
+                "idx_available_slots_open");
+    }
+
+    @Test
+    @DisplayName("Appointment lookups use the doctor, patient and upcoming indexes")
+    void appointments() {
+        assertUsesIndex("SELECT * FROM appointments WHERE doctor_id = 1 AND date = DATE '2030-01-07' " +
+                        "AND status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR')",
+                "idx_appointments_doctor_date_status");
+        assertUsesIndex("SELECT * FROM appointments WHERE patient_id = 1", "idx_appointments_patient");
+        assertUsesIndex("SELECT * FROM appointments WHERE status IN ('SCHEDULED', 'CONFIRMED') ORDER BY date, start_time",
+                "idx_appointments_upcoming");
+    }
+
+    @Test
+    @DisplayName("Notification inbox queries use the recipient index")
+    void notifications() {
+        assertUsesIndex("SELECT * FROM notifications WHERE recipient_id = 1 AND recipient_type = 'PATIENT' AND status = 'PENDING'",
+                "idx_notifications_recipient");
+        assertUsesIndex("SELECT * FROM notifications WHERE appointment_id = 1", "idx_notifications_appointment");
+    }
+
+    @Test
+    @DisplayName("The retention scan walks only READ notifications in age order")
+    void retentionScan() {
+        assertUsesIndex("SELECT notification_id FROM notifications WHERE status = 'READ' AND created_at < TIMESTAMP '2030-01-01 00:00' " +
+                "ORDER BY created_at, notification_id LIMIT 1000", "idx_notifications_read_age");
+    }
+
+    @Test
+    @DisplayName("A slot holds one live appointment, cancelled ones do not count")
+    void oneLiveAppointmentPerSlot() {
+        jdbcTemplate.update("INSERT INTO doctors (doctor_id, name, specialization, email, password) " +
+                "VALUES (900, 'Dr. Index', 'General', 'index@clinic.test', 'x')");
+        jdbcTemplate.update("INSERT INTO patients (patient_id, name, email, password) VALUES (900, 'Index', 'index@patient.test', 'x')");
+        jdbcTemplate.update("INSERT INTO available_slots (slot_id, doctor_id, date, start_time, end_time, status) " +
+                "VALUES (900, 900, DATE '2030-01-07', TIME '09:00', TIME '09:30', 'BOOKED')");
+        String insert = "INSERT INTO appointments (appointment_id, patient_id, doctor_id, slot_id, date, start_time, end_time, status) " +
+                "VALUES (?, 900, 900, 900, DATE '2030-01-07', TIME '09:00', TIME '09:30', ?)";
+
+        jdbcTemplate.update(insert, 900, "CANCELLED_BY_PATIENT");
+        jdbcTemplate.update(insert, 901, "SCHEDULED");
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(insert, 902, "CONFIRMED"));
+    }
+
+    private void assertUsesIndex(String sql, String... indexes) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return lines.toString();
+            }
+        });
+        assertTrue(Arrays.stream(indexes).anyMatch(plan::contains),
+                () -> "Expected one of " + Arrays.toString(indexes) + " in plan for " + sql + ":\n" + plan);
+    }
+}
@@ -0,0 +1,282 @@
+package com.clinic.datalayer;
+
+import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.entities.Patient;
+import com.clinic.datalayer.grpc.AppointmentServiceGrpc;
+import com.clinic.datalayer.grpc.AvailableSlotServiceGrpc;
+import com.clinic.datalayer.grpc.BookAppointmentRequest;
+import com.clinic.datalayer.grpc.IdRequest;
+import com.clinic.datalayer.grpc.SlotFilterRequest;
+import com.clinic.datalayer.inventory.SlotGenerator;
+import com.clinic.datalayer.repositories.DoctorRepository;
+import com.clinic.datalayer.repositories.PatientRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.lognet.springboot.grpc.context.GRpcServerInitializedEvent;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the data tier on an embedded PostgreSQL on platform threads, with
+ * {@code spring.threads.virtual.enabled=true} and handlers capped at the pool size,
+ * and on virtual threads without the cap, each on a fresh migrated database, and
+ * drives all three with the same number of concurrent users. Each user
+ * mixes doctor/day slot listings, patient appointment lists and bookings, so
+ * every call goes over network JDBC through a Hikari pool far smaller than the
+ * user count. Prints throughput, p50/p99 latency, rejected bookings, the most
+ * threads seen waiting for a connection and failed calls side by side. Calls fail
+ * when the queue in front of the pool outgrows the 10 s deadline or the pool's
+ * connection timeout; that is a result to compare, not a test failure. Run with:
+ * {@code mvn test -Dtest=VirtualThreadLoadTest -Dloadtest=true [-Dloadtest.users=2000] [-Dloadtest.seconds=30]
+ * [-Dloadtest.pool-size=20] [-Dloadtest.platform-threads=200] [-DargLine=-Djdk.tracePinnedThreads=short]}
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@DisplayName("Virtual Thread Load Test")
+class VirtualThreadLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 2000);
+    private static final long SECONDS = Long.getLong("loadtest.seconds", 30);
+    private static final int POOL_SIZE = Integer.getInteger("loadtest.pool-size", 20);
+    private static final int PLATFORM_THREADS = Integer.getInteger("loadtest.platform-threads", 200);
+    private static final int DOCTORS = 20;
+    private static final int DAYS = 30;
+    private static final long WARMUP_SECONDS = 5;
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void startPostgres() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    @DisplayName("Platform and virtual threads under a booking/list mix at 2k users")
+    void testVirtualVersusPlatformThreads() throws Exception {
+        Result platform = run("vt_platform", false, 0);
+        Result virtual = run("vt_virtual", true, 0);
+        Result uncapped = run("vt_uncapped", true, Integer.MAX_VALUE);
+
+        System.out.printf("%n%d users, pool of %d connections, %d platform handler threads%n", USERS, POOL_SIZE, PLATFORM_THREADS);
+        System.out.printf("%-10s %12s %10s %10s %10s %12s %8s%n",
+                "threads", "requests/s", "p50 ms", "p99 ms", "rejected", "max waiting", "errors");
+        System.out.println(platform.format("platform"));
+        System.out.println(virtual.format("virtual"));
+        System.out.println(uncapped.format("uncapped"));
+
+        assertTrue(platform.requests() > 0);
+        assertTrue(virtual.requests() > 0);
+        assertTrue(uncapped.requests() > 0);
+    }
+
+    // maxHandlers 0 leaves grpc.server.max-concurrent-handlers at its default, the pool size
+    private Result run(String database, boolean virtualThreads, int maxHandlers) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + database);
+        }
+
+        AtomicInteger grpcPort = new AtomicInteger();
+        ApplicationListener<GRpcServerInitializedEvent> portListener = event -> grpcPort.set(event.getServer().getPort());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataLayerApplication.class)
+                .listeners(portListener)
+                // Command-line arguments, so they win over src/test/resources/application.properties
+                .run(
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:postgresql://localhost:" + postgres.getPort() + "/" + database,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=10000",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.flyway.enabled=true",
+                        // Ignored on virtual threads, where every call gets its own thread
+                        "--grpc.server.executor-threads=" + PLATFORM_THREADS,
+                        "--grpc.server.max-concurrent-handlers=" + maxHandlers,
+                        "--management.tracing.sampling.probability=0.0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.clinic=INFO",
+                        "--server.port=0",
+                        "--grpc.port=0");
+             ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Seed seed = seed(context);
+            ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", grpcPort.get())
+                    .usePlaintext()
+                    .build();
+            AvailableSlotServiceGrpc.AvailableSlotServiceBlockingStub slots = AvailableSlotServiceGrpc.newBlockingStub(channel);
+            AppointmentServiceGrpc.AppointmentServiceBlockingStub appointments = AppointmentServiceGrpc.newBlockingStub(channel);
+            HikariDataSource dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+            long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+            AtomicLong errors = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            AtomicInteger maxWaiting = new AtomicInteger();
+            long[][] latencies = new long[USERS][];
+            for (int i = 0; i < USERS; i++) {
+                int user = i;
+                users.submit(() -> {
+                    long patientId = seed.patientIds().get(user % seed.patientIds().size());
+                    Random random = ThreadLocalRandom.current();
+                    long[] recorded = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < stopAt) {
+                        long start = System.nanoTime();
+                        try {
+                            int roll = random.nextInt(10);
+                            if (roll < 5) {
+                                slots.withDeadlineAfter(10, TimeUnit.SECONDS).getAvailableSlots(SlotFilterRequest.newBuilder()
+                                        .setDoctorId(seed.doctorIds().get(random.nextInt(seed.doctorIds().size())))
+                                        .setDate(seed.firstDay().plusDays(random.nextInt(DAYS)).toString())
+                                        .build());
+                            } else if (roll < 8) {
+                                appointments.withDeadlineAfter(10, TimeUnit.SECONDS)
+                                        .getPatientAppointments(IdRequest.newBuilder().setId(patientId).build());
+                            } else {
+                                Seed.Slot slot = seed.slots().get(random.nextInt(seed.slots().size()));
+                                appointments.withDeadlineAfter(10, TimeUnit.SECONDS).bookAppointment(BookAppointmentRequest.newBuilder()
+                                        .setPatientId(patientId)
+                                        .setDoctorId(slot.doctorId())
+                                        .setSlotId(slot.slotId())
+                                        .build());
+                            }
+                        } catch (StatusRuntimeException e) {
+                            if (start >= measureFrom) {
+                                if (e.getStatus().getCode() == Status.Code.FAILED_PRECONDITION) {
+                                    // Somebody else got the slot first; still a completed request
+                                    rejected.incrementAndGet();
+                                } else {
+                                    errors.incrementAndGet();
+                                    continue;
+                                }
+                            }
+                        }
+                        if (start >= measureFrom) {
+                            if (count == recorded.length) {
+                                recorded = Arrays.copyOf(recorded, count * 2);
+                            }
+                            recorded[count++] = System.nanoTime() - start;
+                        }
+                    }
+                    latencies[user] = Arrays.copyOf(recorded, count);
+                });
+            }
+            users.submit(() -> {
+                while (System.nanoTime() < stopAt) {
+                    maxWaiting.accumulateAndGet(dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(), Math::max);
+                    Thread.sleep(100);
+                }
+                return null;
+            });
+            users.shutdown();
+            users.awaitTermination(SECONDS + WARMUP_SECONDS + 60, TimeUnit.SECONDS);
+            channel.shutdownNow();
+            return Result.of(latencies, rejected.get(), maxWaiting.get(), errors.get());
+        }
+    }
+
+    /**
+     * One patient per user, {@value #DOCTORS} doctors and {@value #DAYS} days of 20-minute
+     * slots, written through the data tier's own repositories and slot generator.
+     */
+    private Seed seed(ConfigurableApplicationContext context) {
+        List<Long> doctorIds = context.getBean(DoctorRepository.class).saveAll(IntStream.range(0, DOCTORS)
+                        .mapToObj(i -> {
+                            Doctor doctor = new Doctor();
+                            doctor.setName("Dr. Load " + i);
+                            doctor.setSpecialization("General");
+                            doctor.setEmail("doctor" + i + "@load.test");
+                            doctor.setPassword("not-a-hash");
+                            return doctor;
+                        })
+                        .toList())
+                .stream().map(Doctor::getDoctorId).toList();
+        List<Long> patientIds = context.getBean(PatientRepository.class).saveAll(IntStream.range(0, USERS)
+                        .mapToObj(i -> {
+                            Patient patient = new Patient();
+                            patient.setName("Patient Load " + i);
+                            patient.setEmail("patient" + i + "@load.test");
+                            patient.setPassword("not-a-hash");
+                            return patient;
+                        })
+                        .toList())
+                .stream().map(Patient::getPatientId).toList();
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        context.getBean(SlotGenerator.class).generate(doctorIds, new SlotGenerator.Rule(
+                firstDay, firstDay.plusDays(DAYS - 1), Set.of(), LocalTime.of(8, 0), LocalTime.of(18, 0), 20));
+        List<Seed.Slot> slots = context.getBean(JdbcTemplate.class).query(
+                "SELECT slot_id, doctor_id FROM available_slots WHERE doctor_id IN (" +
+                        String.join(",", doctorIds.stream().map(String::valueOf).toList()) + ")",
+                (rs, row) -> new Seed.Slot(rs.getLong("slot_id"), rs.getLong("doctor_id")));
+        return new Seed(doctorIds, patientIds, firstDay, slots);
+    }
+
+    private record Seed(List<Long> doctorIds, List<Long> patientIds, LocalDate firstDay, List<Slot> slots) {
+
+        record Slot(long slotId, long doctorId) {
+        }
+    }
+
+    private record Result(long requests, long p50Nanos, long p99Nanos, long rejected, int maxWaiting, long errors) {
+
+        static Result of(long[][] perUser, long rejected, int maxWaiting, long errors) {
+            int total = Arrays.stream(perUser).mapToInt(samples -> samples.length).sum();
+            long[] all = new long[total];
+            int offset = 0;
+            for (long[] samples : perUser) {
+                System.arraycopy(samples, 0, all, offset, samples.length);
+                offset += samples.length;
+            }
+            Arrays.sort(all);
+            return new Result(total, percentile(all, 0.50), percentile(all, 0.99), rejected, maxWaiting, errors);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+        }
+
+        String format(String label) {
+            return String.format("%-10s %12.0f %10.2f %10.2f %10d %12d %8d", label, (double) requests / SECONDS,
+                    p50Nanos / 1e6, p99Nanos / 1e6, rejected, maxWaiting, errors);
+        }
+    }
+}
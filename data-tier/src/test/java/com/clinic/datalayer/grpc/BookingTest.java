@@ -0,0 +1,231 @@
+package com.clinic.datalayer.grpc;
+
+import com.clinic.datalayer.EmbeddedPostgresDatabase;
+import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.entities.Notification;
+import com.clinic.datalayer.entities.Patient;
+import com.clinic.datalayer.repositories.AvailableSlotRepository;
+import com.clinic.datalayer.repositories.DoctorRepository;
+import com.clinic.datalayer.repositories.NotificationRepository;
+import com.clinic.datalayer.repositories.PatientRepository;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Booking against PostgreSQL: the rollup upsert, the JDBC notification
+ * inserts and the races between transactions need the real database.
+ */
+@SpringBootTest
+@DisplayName("Booking Tests")
+class BookingTest {
+
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        EmbeddedPostgresDatabase.register(registry, "booking_test");
+    }
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AvailableSlotRepository availableSlotRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Concurrent bookings of one slot: exactly one wins")
+    void testBookAppointment_ConcurrentOneWinner() throws Exception {
+        Doctor doctor = doctor();
+        AvailableSlot slot = slots(doctor, 1).get(0);
+        int contenders = 8;
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            patients.add(patient());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(contenders);
+        List<Future<Recorder<AppointmentMessage>>> calls = new ArrayList<>();
+        try {
+            for (Patient patient : patients) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    Recorder<AppointmentMessage> response = new Recorder<>();
+                    appointmentService.bookAppointment(BookAppointmentRequest.newBuilder()
+                            .setPatientId(patient.getPatientId())
+                            .setDoctorId(doctor.getDoctorId())
+                            .setSlotId(slot.getSlotId())
+                            .build(), response);
+                    return response;
+                }));
+            }
+            start.countDown();
+            int booked = 0;
+            for (Future<Recorder<AppointmentMessage>> call : calls) {
+                Recorder<AppointmentMessage> response = call.get();
+                if (response.error == null) {
+                    booked++;
+                } else {
+                    assertEquals(Status.Code.FAILED_PRECONDITION, Status.fromThrowable(response.error).getCode());
+                }
+            }
+            assertEquals(1, booked);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM appointments WHERE slot_id = ?", Long.class, slot.getSlotId()));
+        assertEquals("BOOKED", availableSlotRepository.findById(slot.getSlotId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("A booking whose transaction fails releases the slot")
+    void testBookAppointment_FailedTransactionReleasesSlot() {
+        Doctor doctor = doctor();
+        Patient patient = patient();
+        AvailableSlot slot = slots(doctor, 1).get(0);
+
+        Recorder<AppointmentMessage> failed = new Recorder<>();
+        appointmentService.bookAppointment(BookAppointmentRequest.newBuilder()
+                .setPatientId(Long.MAX_VALUE)
+                .setDoctorId(doctor.getDoctorId())
+                .setSlotId(slot.getSlotId())
+                .build(), failed);
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(failed.error).getCode());
+        assertEquals("AVAILABLE", availableSlotRepository.findById(slot.getSlotId()).orElseThrow().getStatus());
+
+        Recorder<AppointmentMessage> booked = new Recorder<>();
+        appointmentService.bookAppointment(BookAppointmentRequest.newBuilder()
+                .setPatientId(patient.getPatientId())
+                .setDoctorId(doctor.getDoctorId())
+                .setSlotId(slot.getSlotId())
+                .build(), booked);
+        assertEquals(slot.getSlotId(), booked.single().getSlotId());
+    }
+
+    @Test
+    @DisplayName("A batch booking stores every appointment with its confirmation")
+    void testBookAppointments_ConfirmationsReadBack() {
+        Doctor doctor = doctor();
+        Patient patient = patient();
+        List<AvailableSlot> slots = slots(doctor, 5);
+
+        BookAppointmentsRequest.Builder request = BookAppointmentsRequest.newBuilder();
+        slots.forEach(slot -> request.addItems(BookAppointmentRequest.newBuilder()
+                .setPatientId(patient.getPatientId())
+                .setDoctorId(doctor.getDoctorId())
+                .setSlotId(slot.getSlotId())));
+        Recorder<BookAppointmentsResponse> response = new Recorder<>();
+        appointmentService.bookAppointments(request.build(), response);
+
+        BookAppointmentsResponse booked = response.single();
+        assertTrue(booked.getSuccess());
+        List<Long> appointmentIds = booked.getResultsList().stream()
+                .peek(result -> assertEquals("BOOKED", result.getStatus()))
+                .map(result -> result.getAppointment().getAppointmentId())
+                .toList();
+        List<Notification> confirmations = notificationRepository.findByAppointmentAppointmentIdIn(appointmentIds);
+        assertEquals(slots.size(), confirmations.size());
+        confirmations.forEach(notification -> {
+            assertEquals("BOOKING_CONFIRMATION", notification.getType());
+            assertEquals(patient.getPatientId(), notification.getRecipientId());
+        });
+        assertEquals(slots.size(), availableSlotRepository.findAllById(slots.stream().map(AvailableSlot::getSlotId).toList())
+                .stream().filter(slot -> "BOOKED".equals(slot.getStatus())).count());
+    }
+
+    private Doctor doctor() {
+        long n = NEXT.incrementAndGet();
+        Doctor doctor = new Doctor();
+        doctor.setName("Dr. Booking " + n);
+        doctor.setSpecialization("General");
+        doctor.setEmail("booking" + n + "@clinic.test");
+        doctor.setPassword("secret");
+        return doctorRepository.save(doctor);
+    }
+
+    private Patient patient() {
+        long n = NEXT.incrementAndGet();
+        Patient patient = new Patient();
+        patient.setName("Patient Booking " + n);
+        patient.setEmail("booking" + n + "@patient.test");
+        patient.setPassword("secret");
+        return patientRepository.save(patient);
+    }
+
+    private List<AvailableSlot> slots(Doctor doctor, int count) {
+        LocalDate date = LocalDate.now().plusDays(1);
+        List<AvailableSlot> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * i);
+            AvailableSlot slot = new AvailableSlot();
+            slot.setDoctor(doctor);
+            slot.setDate(date);
+            slot.setStartTime(start);
+            slot.setEndTime(start.plusMinutes(30));
+            slot.setStatus("AVAILABLE");
+            slots.add(slot);
+        }
+        return availableSlotRepository.saveAll(slots);
+    }
+
+    private static final class Recorder<T> implements StreamObserver<T> {
+        private final List<T> values = new ArrayList<>();
+        private Throwable error;
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+
+        T single() {
+            assertNull(error);
+            assertEquals(1, values.size());
+            return values.get(0);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.clinic.datalayer.grpc;
+
+import com.clinic.datalayer.entities.Appointment;
+import com.clinic.datalayer.entities.AvailableSlot;
+import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.entities.Notification;
+import com.clinic.datalayer.entities.Patient;
+import com.clinic.datalayer.entities.Staff;
+import com.clinic.datalayer.repositories.*;
+import io.grpc.stub.StreamObserver;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every list RPC must read its rows and their associations in a fixed number of
+ * statements, however many rows there are.
+ */
+@SpringBootTest
+@DisplayName("List RPC Query Count Tests")
+class ListQueryCountTest {
+
+    private static final int ROWS = 40;
+    private static final long MAX_STATEMENTS = 3;
+
+    @Autowired
+    private AppointmentServiceImpl appointmentService;
+
+    @Autowired
+    private AvailableSlotServiceImpl availableSlotService;
+
+    @Autowired
+    private NotificationServiceImpl notificationService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private AvailableSlotRepository availableSlotRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (appointmentRepository.count() > 0) {
+            return;
+        }
+        List<Doctor> doctors = doctorRepository.findAll();
+        Staff staff = staffRepository.findAll().get(0);
+        LocalDate date = LocalDate.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            Patient patient = new Patient();
+            patient.setName("Patient " + i);
+            patient.setEmail("patient" + i + "@test.com");
+            patient.setPassword("secret");
+            patientRepository.save(patient);
+
+            Doctor doctor = doctors.get(i % doctors.size());
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * i);
+            AvailableSlot slot = new AvailableSlot();
+            slot.setDoctor(doctor);
+            slot.setDate(date);
+            slot.setStartTime(start);
+            slot.setEndTime(start.plusMinutes(15));
+            slot.setStatus("BOOKED");
+            availableSlotRepository.save(slot);
+
+            Appointment appointment = new Appointment();
+            appointment.setPatient(patient);
+            appointment.setDoctor(doctor);
+            appointment.setSlot(slot);
+            appointment.setStaff(staff);
+            appointment.setDate(date);
+            appointment.setStartTime(slot.getStartTime());
+            appointment.setEndTime(slot.getEndTime());
+            appointment.setStatus("SCHEDULED");
+            appointment.setType("CONSULTATION");
+            appointmentRepository.save(appointment);
+
+            Notification notification = new Notification();
+            notification.setAppointment(appointment);
+            notification.setStaff(staff);
+            notification.setRecipientId(patient.getPatientId());
+            notification.setRecipientType("PATIENT");
+            notification.setMessage("Booked");
+            notification.setType("BOOKING_CONFIRMATION");
+            notification.setStatus("PENDING");
+            notification.setChannel("EMAIL");
+            notificationRepository.save(notification);
+        }
+    }
+
+    @Test
+    @DisplayName("GetAllAppointments reads all rows in a bounded number of statements")
+    void testGetAllAppointments_BoundedStatements() {
+        Recorder<AppointmentListResponse> response = new Recorder<>();
+        long statements = countStatements(() -> appointmentService.getAllAppointments(Empty.getDefaultInstance(), response));
+
+        assertEquals(ROWS, response.single().getAppointmentsCount());
+        assertBounded(statements);
+    }
+
+    @Test
+    @DisplayName("GetDoctorAppointments reads all rows in a bounded number of statements")
+    void testGetDoctorAppointments_BoundedStatements() {
+        long doctorId = doctorRepository.findAll().get(0).getDoctorId();
+        Recorder<AppointmentListResponse> response = new Recorder<>();
+        long statements = countStatements(() -> appointmentService.getDoctorAppointments(
+                IdRequest.newBuilder().setId(doctorId).build(), response));
+
+        assertTrue(response.single().getAppointmentsCount() > 0);
+        assertBounded(statements);
+    }
+
+    @Test
+    @DisplayName("Paged GetAppointmentsByFilter reads a page in a bounded number of statements")
+    void testGetAppointmentsByFilterPage_BoundedStatements() {
+        Recorder<AppointmentListResponse> response = new Recorder<>();
+        long statements = countStatements(() -> appointmentService.getAppointmentsByFilter(
+                AppointmentFilterRequest.newBuilder().setLimit(ROWS / 2).build(), response));
+
+        assertEquals(ROWS / 2, response.single().getAppointmentsCount());
+        assertBounded(statements);
+    }
+
+    @Test
+    @DisplayName("GetAllSlots reads all rows in a bounded number of statements")
+    void testGetAllSlots_BoundedStatements() {
+        Recorder<AvailableSlotListResponse> response = new Recorder<>();
+        long statements = countStatements(() -> availableSlotService.getAllSlots(Empty.getDefaultInstance(), response));
+
+        assertEquals(ROWS, response.single().getSlotsCount());
+        assertBounded(statements);
+    }
+
+    @Test
+    @DisplayName("Paged GetSlotsByFilter reads a page in a bounded number of statements")
+    void testGetSlotsByFilterPage_BoundedStatements() {
+        Recorder<AvailableSlotListResponse> response = new Recorder<>();
+        long statements = countStatements(() -> availableSlotService.getSlotsByFilter(
+                SlotFilterRequest.newBuilder().setLimit(ROWS / 2).build(), response));
+
+        assertEquals(ROWS / 2, response.single().getSlotsCount());
+        assertBounded(statements);
+    }
+
+    @Test
+    @DisplayName("GetAllNotifications reads all rows in a bounded number of statements")
+    void testGetAllNotifications_BoundedStatements() {
+        Recorder<NotificationListResponse> response = new Recorder<>();
+        long statements = countStatements(() -> notificationService.getAllNotifications(Empty.getDefaultInstance(), response));
+
+        assertEquals(ROWS, response.single().getNotificationsCount());
+        assertBounded(statements);
+    }
+
+    private long countStatements(Runnable call) {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void assertBounded(long statements) {
+        assertTrue(statements <= MAX_STATEMENTS,
+                "expected at most " + MAX_STATEMENTS + " statements but " + statements + " were prepared");
+    }
+
+    private static final class Recorder<T> implements StreamObserver<T> {
+        private final List<T> values = new ArrayList<>();
+        private Throwable error;
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+
+        T single() {
+            assertNull(error);
+            assertEquals(1, values.size());
+            return values.get(0);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.clinic.loadtest;
+
+import com.clinic.datalayer.DataLayerApplication;
+import com.clinic.datalayer.retention.NotificationRetention;
+import com.clinic.loadtest.Seeder.SeedData;
+import com.clinic.loadtest.Workload.Operation;
+import com.clinic.loadtest.Workload.User;
+import com.clinic.logic.LogicTierApplication;
+import com.clinic.logic.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.lognet.springboot.grpc.context.GRpcServerInitializedEvent;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Starts PostgreSQL from the embedded binaries, boots the data tier on it with
+ * the Flyway migrations and the production pool settings, boots the logic tier
+ * against the data tier's gRPC port, seeds doctors, patients and a schedule,
+ * and then drives the REST API phase by phase with {@code loadtest.users}
+ * concurrent users on virtual threads. Each phase reports throughput, p50/p99
+ * latency and status codes per operation, plus the SQL statements the data
+ * tier executed per request. The retention phase gives every patient
+ * {@code loadtest.notifications-per-patient} READ notifications spread over a
+ * year, measures the inbox, runs the notification retention job once and
+ * reports its throughput, then measures the inbox again. Needs no Docker and no network once the
+ * dependencies are in the local Maven repository:
+ * {@code mvn -f load-test/pom.xml compile exec:java [-Dloadtest.phases=browse,book]}
+ *
+ * <p>Any Spring property passed with {@code -D} overrides the defaults below
+ * in both tiers, e.g. {@code -Dspring.threads.virtual.enabled=true}.
+ */
+public class LoadTestHarness {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final long SECONDS = Long.getLong("loadtest.seconds", 30);
+    private static final long WARMUP_SECONDS = Long.getLong("loadtest.warmup-seconds", 5);
+    private static final long THINK_MILLIS = Long.getLong("loadtest.think-ms", 0);
+    private static final int DOCTORS = Integer.getInteger("loadtest.doctors", 50);
+    private static final int PATIENTS = Integer.getInteger("loadtest.patients", 1000);
+    private static final int STAFF = Integer.getInteger("loadtest.staff", 5);
+    private static final int DAYS = Integer.getInteger("loadtest.days", 14);
+    private static final int NOTIFICATIONS_PER_PATIENT = Integer.getInteger("loadtest.notifications-per-patient", 200);
+    private static final int NOTIFICATION_HISTORY_DAYS = 365;
+    private static final List<String> PHASES = Arrays.asList(
+            System.getProperty("loadtest.phases", "browse,book,report,mixed,retention").split(","));
+    private static final Set<String> PHASE_KEYS = Set.of("browse", "book", "report", "mixed", "retention");
+
+    private static final String JWT_SECRET = "LoadTestSecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLong";
+
+    public static void main(String[] args) throws Exception {
+        PHASES.stream().filter(phase -> !PHASE_KEYS.contains(phase)).findAny().ifPresent(phase -> {
+            throw new IllegalArgumentException("Unknown loadtest phase " + phase + ", expected one of " + PHASE_KEYS);
+        });
+
+        StatementCounter statements = new StatementCounter();
+        AtomicInteger grpcPort = new AtomicInteger();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext dataTier = startDataTier(postgres, statements, grpcPort);
+             ConfigurableApplicationContext logicTier = startLogicTier(grpcPort.get());
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .executor(clientThreads)
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .build()) {
+
+            System.out.printf("Seeding %d doctors, %d patients, %d staff and %d days of slots...%n",
+                    DOCTORS, PATIENTS, STAFF, DAYS);
+            SeedData seed = new Seeder(dataTier).seed(DOCTORS, PATIENTS, STAFF, DAYS);
+            System.out.printf("Seeded %d slots, %d bookable on %s%n", seed.slotCount(), seed.hotSlots().size(), seed.firstDay());
+
+            URI baseUri = URI.create("http://localhost:" + logicTier.getEnvironment().getRequiredProperty("local.server.port"));
+            Workload workload = workload(http, baseUri, seed, logicTier.getBean(JwtUtil.class));
+
+            for (Phase phase : phases(workload)) {
+                if (PHASES.contains(phase.key())) {
+                    run(phase, http, workload, statements);
+                }
+            }
+            if (PHASES.contains("retention")) {
+                retention(dataTier, http, workload, statements);
+            }
+        }
+    }
+
+    private static void retention(ConfigurableApplicationContext dataTier, HttpClient http, Workload workload,
+                                  StatementCounter statements) throws InterruptedException {
+        JdbcTemplate jdbc = dataTier.getBean(JdbcTemplate.class);
+        System.out.printf("%nSeeding %d notifications per patient over %d days...%n", NOTIFICATIONS_PER_PATIENT, NOTIFICATION_HISTORY_DAYS);
+        int seeded = new Seeder(dataTier).seedNotifications(NOTIFICATIONS_PER_PATIENT, NOTIFICATION_HISTORY_DAYS);
+        jdbc.execute("VACUUM ANALYZE notifications");
+        System.out.printf("Seeded %d notifications, table %s%n", seeded, tableSize(jdbc));
+
+        Recorder.Summary before = run(new Phase("retention", "notification inbox before retention",
+                List.of(new Mix(workload.myNotifications, 1))), http, workload, statements);
+
+        NotificationRetention.Run result = dataTier.getBean(NotificationRetention.class).run();
+        // What autovacuum would get to shortly after a nightly run
+        jdbc.execute("VACUUM ANALYZE notifications");
+        System.out.printf("%n== notification retention ==%n");
+        System.out.printf("Archived %d notifications in %d batches, %d ms (%.0f rows/s)%n",
+                result.archived(), result.batches(), result.elapsed().toMillis(), result.rowsPerSecond());
+        System.out.printf("Archive payload %d KiB JSON as %d KiB gzip (%.1fx); notifications left %d, table %s%n",
+                result.jsonBytes() / 1024, result.compressedBytes() / 1024,
+                result.compressedBytes() == 0 ? 0.0 : (double) result.jsonBytes() / result.compressedBytes(),
+                jdbc.queryForObject("SELECT count(*) FROM notifications", Long.class), tableSize(jdbc));
+
+        Recorder.Summary after = run(new Phase("retention", "notification inbox after retention",
+                List.of(new Mix(workload.myNotifications, 1))), http, workload, statements);
+        System.out.printf("%nGET /api/notifications after retention: %.1f -> %.1f req/s, p50 %.2f -> %.2f ms, p99 %.2f -> %.2f ms%n",
+                before.throughput(), after.throughput(), before.p50Millis(), after.p50Millis(),
+                before.p99Millis(), after.p99Millis());
+    }
+
+    private static String tableSize(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT pg_size_pretty(pg_total_relation_size('notifications'))", String.class);
+    }
+
+    private static ConfigurableApplicationContext startDataTier(EmbeddedPostgres postgres, StatementCounter statements,
+                                                                AtomicInteger grpcPort) {
+        ApplicationListener<GRpcServerInitializedEvent> portListener = event -> grpcPort.set(event.getServer().getPort());
+        return new SpringApplicationBuilder(DataLayerApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(statements))
+                .listeners(portListener)
+                .properties(
+                        "spring.application.name=data-tier",
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration,"
+                                + "org.lognet.springboot.grpc.autoconfigure.security.SecurityAutoConfiguration",
+                        "spring.datasource.url=jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres?reWriteBatchedInserts=true",
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "spring.jpa.properties.hibernate.order_updates=true",
+                        "spring.flyway.enabled=true",
+                        "grpc.port=0",
+                        // The retention phase runs the job itself and measures it unthrottled
+                        "notifications.retention.cron=-",
+                        "notifications.retention.batch-pause-ms=0",
+                        // The rest mirrors data-tier/src/main/resources/application-prod.properties
+                        "grpc.server.executor-threads=32",
+                        "datasource.pool.headroom=4",
+                        "spring.datasource.hikari.pool-name=clinic-data",
+                        "spring.datasource.hikari.connection-timeout=2000",
+                        "spring.datasource.hikari.data-source-properties.prepareThreshold=3",
+                        "spring.datasource.hikari.data-source-properties.preparedStatementCacheQueries=512",
+                        "spring.datasource.hikari.data-source-properties.preparedStatementCacheSizeMiB=8",
+                        "spring.jpa.properties.hibernate.query.plan_cache_max_size=2048",
+                        "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=true",
+                        "management.tracing.sampling.probability=0.1",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static ConfigurableApplicationContext startLogicTier(int dataTierPort) {
+        return new SpringApplicationBuilder(LogicTierApplication.class)
+                .properties(
+                        "spring.application.name=logic-tier",
+                        "spring.main.banner-mode=off",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration,"
+                                + "org.lognet.springboot.grpc.autoconfigure.security.SecurityAutoConfiguration",
+                        "server.port=0",
+                        "management.server.port=-1",
+                        "grpc.port=0",
+                        "grpc.data-tier.host=localhost",
+                        "grpc.data-tier.port=" + dataTierPort,
+                        "cors.allowed-origins=http://localhost",
+                        "jwt.secret=" + JWT_SECRET,
+                        "jwt.expiration=86400000",
+                        "management.tracing.sampling.probability=0.1",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Tokens are minted with the logic tier's own JwtUtil rather than through
+     * thousands of BCrypt logins; one real login per role checks that path.
+     */
+    private static Workload workload(HttpClient http, URI baseUri, SeedData seed, JwtUtil jwtUtil)
+            throws IOException, InterruptedException {
+        login(http, baseUri, "patient0@load.test", "PATIENT");
+        login(http, baseUri, "staff0@load.test", "STAFF");
+
+        List<User> patients = IntStream.range(0, seed.patientIds().size())
+                .mapToObj(i -> new User(seed.patientIds().get(i),
+                        jwtUtil.generateToken(seed.patientIds().get(i), "PATIENT", "Patient Load " + i)))
+                .toList();
+        String staffToken = jwtUtil.generateToken(seed.staffIds().get(0), "STAFF", "Staff Load 0");
+        return new Workload(baseUri, seed, patients, staffToken);
+    }
+
+    private static void login(HttpClient http, URI baseUri, String email, String userType)
+            throws IOException, InterruptedException {
+        String body = new ObjectMapper().writeValueAsString(
+                Map.of("email", email, "password", Seeder.PASSWORD, "userType", userType));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + email + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static List<Phase> phases(Workload workload) {
+        return List.of(
+                new Phase("browse", "schedule browsing", List.of(
+                        new Mix(workload.listDoctors, 2),
+                        new Mix(workload.daySlots, 5),
+                        new Mix(workload.doctorSchedule, 3))),
+                new Phase("book", "booking storm", List.of(
+                        new Mix(workload.book, 1))),
+                new Phase("report", "staff reports", List.of(
+                        new Mix(workload.scheduleReport, 1))),
+                new Phase("mixed", "mixed day", List.of(
+                        new Mix(workload.daySlots, 40),
+                        new Mix(workload.doctorSchedule, 20),
+                        new Mix(workload.listDoctors, 10),
+                        new Mix(workload.myAppointments, 15),
+                        new Mix(workload.book, 12),
+                        new Mix(workload.scheduleReport, 3))));
+    }
+
+    private static Recorder.Summary run(Phase phase, HttpClient http, Workload workload, StatementCounter statements)
+            throws InterruptedException {
+        Recorder recorder = new Recorder();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+        StatementCounter.Snapshot before;
+        StatementCounter.Snapshot after;
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < USERS; i++) {
+                User user = workload.user(i);
+                users.submit(() -> {
+                    Random random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < stopAt) {
+                        Operation operation = phase.pick(random);
+                        HttpRequest request = operation.request().apply(user, random);
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        if (start >= measureFrom) {
+                            recorder.record(operation.name(), status, System.nanoTime() - start);
+                        }
+                        if (THINK_MILLIS > 0) {
+                            Thread.sleep(random.nextLong(THINK_MILLIS * 2));
+                        }
+                    }
+                    return null;
+                });
+            }
+            TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+            before = statements.snapshot();
+            TimeUnit.NANOSECONDS.sleep(stopAt - System.nanoTime());
+            after = statements.snapshot();
+        }
+
+        return report(phase, recorder, after.minus(before));
+    }
+
+    private static Recorder.Summary report(Phase phase, Recorder recorder, StatementCounter.Snapshot statements) {
+        System.out.printf("%n== %s: %d users, %d s after %d s warm-up ==%n", phase.title(), USERS, SECONDS, WARMUP_SECONDS);
+        System.out.printf("%-34s %9s %9s %9s %9s  %s%n", "operation", "requests", "req/s", "p50 ms", "p99 ms", "statuses");
+        recorder.summarize(SECONDS).forEach((operation, summary) -> System.out.println(format(operation, summary)));
+        Recorder.Summary total = recorder.total(SECONDS);
+        System.out.println(format("total", total));
+        System.out.printf("SQL: %d statements executed (%.2f per request), %d rows sent in JDBC batches%n",
+                statements.executions(),
+                total.requests() == 0 ? 0.0 : (double) statements.executions() / total.requests(),
+                statements.batchedRows());
+        return total;
+    }
+
+    private static String format(String operation, Recorder.Summary summary) {
+        String statuses = summary.statuses().entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(" "));
+        return String.format("%-34s %9d %9.1f %9.2f %9.2f  %s", operation, summary.requests(), summary.throughput(),
+                summary.p50Millis(), summary.p99Millis(), statuses);
+    }
+
+    private record Mix(Operation operation, int weight) {
+    }
+
+    private record Phase(String key, String title, List<Mix> mix) {
+
+        Operation pick(Random random) {
+            int roll = random.nextInt(mix.stream().mapToInt(Mix::weight).sum());
+            for (Mix entry : mix) {
+                roll -= entry.weight();
+                if (roll < 0) {
+                    return entry.operation();
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.clinic.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencies and status codes per operation for one phase. Status -1 stands for
+ * a request that never got a response (connection refused, reset, timed out).
+ */
+class Recorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String operation, int status, long nanos) {
+        samples.computeIfAbsent(operation, name -> new Samples()).add(status, nanos);
+    }
+
+    Map<String, Summary> summarize(double seconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        samples.forEach((operation, s) -> summaries.put(operation, s.summarize(seconds)));
+        return summaries;
+    }
+
+    Summary total(double seconds) {
+        Samples all = new Samples();
+        samples.values().forEach(all::addAll);
+        return all.summarize(seconds);
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[4096];
+        private int count;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        synchronized void add(int status, long latency) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        synchronized void addAll(Samples other) {
+            synchronized (other) {
+                if (count + other.count > nanos.length) {
+                    nanos = Arrays.copyOf(nanos, count + other.count);
+                }
+                System.arraycopy(other.nanos, 0, nanos, count, other.count);
+                count += other.count;
+                other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+            }
+        }
+
+        synchronized Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return new Summary(count, count / seconds, percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                    new TreeMap<>(statuses));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+
+    record Summary(int requests, double throughput, double p50Millis, double p99Millis, Map<Integer, Integer> statuses) {
+    }
+}
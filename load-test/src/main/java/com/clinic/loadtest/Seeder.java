@@ -0,0 +1,116 @@
+package com.clinic.loadtest;
+
+import com.clinic.datalayer.entities.Doctor;
+import com.clinic.datalayer.entities.Patient;
+import com.clinic.datalayer.entities.Staff;
+import com.clinic.datalayer.inventory.SlotGenerator;
+import com.clinic.datalayer.repositories.DoctorRepository;
+import com.clinic.datalayer.repositories.PatientRepository;
+import com.clinic.datalayer.repositories.StaffRepository;
+import com.clinic.datalayer.util.PasswordUtil;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Fills the freshly migrated database through the data tier's own
+ * repositories and {@link SlotGenerator}. Every account shares one password
+ * hash, so seeding thousands of users costs a single BCrypt round.
+ */
+class Seeder {
+
+    static final String PASSWORD = "loadtest";
+    private static final String[] SPECIALIZATIONS = {"General", "Cardiology", "Dermatology", "Pediatrics", "Neurology"};
+
+    private final ApplicationContext dataTier;
+
+    Seeder(ApplicationContext dataTier) {
+        this.dataTier = dataTier;
+    }
+
+    SeedData seed(int doctorCount, int patientCount, int staffCount, int days) {
+        String hash = PasswordUtil.hashPassword(PASSWORD);
+
+        List<Doctor> doctors = dataTier.getBean(DoctorRepository.class).saveAll(IntStream.range(0, doctorCount)
+                .mapToObj(i -> {
+                    Doctor doctor = new Doctor();
+                    doctor.setName("Dr. Load " + i);
+                    doctor.setSpecialization(SPECIALIZATIONS[i % SPECIALIZATIONS.length]);
+                    doctor.setEmail("doctor" + i + "@load.test");
+                    doctor.setPassword(hash);
+                    return doctor;
+                })
+                .toList());
+
+        List<Patient> patients = dataTier.getBean(PatientRepository.class).saveAll(IntStream.range(0, patientCount)
+                .mapToObj(i -> {
+                    Patient patient = new Patient();
+                    patient.setName("Patient Load " + i);
+                    patient.setEmail("patient" + i + "@load.test");
+                    patient.setPhone(String.format("555-%07d", i));
+                    patient.setPassword(hash);
+                    return patient;
+                })
+                .toList());
+
+        List<Staff> staff = dataTier.getBean(StaffRepository.class).saveAll(IntStream.range(0, staffCount)
+                .mapToObj(i -> {
+                    Staff member = new Staff();
+                    member.setName("Staff Load " + i);
+                    member.setEmail("staff" + i + "@load.test");
+                    member.setRole("RECEPTIONIST");
+                    member.setPassword(hash);
+                    return member;
+                })
+                .toList());
+
+        List<Long> doctorIds = doctors.stream().map(Doctor::getDoctorId).toList();
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        LocalDate lastDay = firstDay.plusDays(days - 1);
+        SlotGenerator.Result slots = dataTier.getBean(SlotGenerator.class).generate(doctorIds,
+                new SlotGenerator.Rule(firstDay, lastDay, Set.of(), LocalTime.of(8, 0), LocalTime.of(18, 0), 20));
+
+        // The first day is what everybody races for in a booking storm
+        List<HotSlot> hotSlots = dataTier.getBean(JdbcTemplate.class).query(
+                "SELECT slot_id, doctor_id FROM available_slots WHERE date = ? AND status = 'AVAILABLE'",
+                (rs, row) -> new HotSlot(rs.getLong("slot_id"), rs.getLong("doctor_id")),
+                firstDay);
+
+        return new SeedData(
+                doctorIds,
+                patients.stream().map(Patient::getPatientId).toList(),
+                staff.stream().map(Staff::getStaffId).toList(),
+                firstDay,
+                lastDay,
+                slots.created(),
+                hotSlots);
+    }
+
+    /**
+     * Gives every patient {@code perPatient} delivered notifications spread
+     * evenly over the last {@code days} days, most of them READ, written in one
+     * statement rather than through the booking path.
+     */
+    int seedNotifications(int perPatient, int days) {
+        return dataTier.getBean(JdbcTemplate.class).update(
+                "INSERT INTO notifications (recipient_id, recipient_type, message, type, status, channel, created_at, " +
+                "attempts, next_attempt_at, sent_at) " +
+                "SELECT p.patient_id, 'PATIENT', repeat('Your appointment details have changed. ', 18), 'UPDATE', " +
+                "       CASE WHEN g % 5 = 0 THEN 'SENT' ELSE 'READ' END, 'EMAIL', t.at, 1, t.at, t.at " +
+                "FROM patients p CROSS JOIN generate_series(1, ?) g " +
+                "CROSS JOIN LATERAL (SELECT localtimestamp - make_interval(secs => g * ? * 86400.0 / ?) AS at) t",
+                perPatient, days, perPatient);
+    }
+
+    record HotSlot(long slotId, long doctorId) {
+    }
+
+    record SeedData(List<Long> doctorIds, List<Long> patientIds, List<Long> staffIds,
+                    LocalDate firstDay, LocalDate lastDay, int slotCount, List<HotSlot> hotSlots) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.clinic.loadtest;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wraps the data tier's DataSource and counts every statement execution that
+ * reaches the driver, whether it comes from Hibernate, Spring Data or a
+ * JdbcTemplate. A JDBC batch counts once as a round trip and separately by the
+ * number of rows it carried.
+ */
+class StatementCounter implements BeanPostProcessor, QueryExecutionListener {
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder batchedRows = new LongAdder();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name("load-test")
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        executions.increment();
+        if (execInfo.isBatch()) {
+            batchedRows.add(execInfo.getBatchSize());
+        }
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(executions.sum(), batchedRows.sum());
+    }
+
+    record Snapshot(long executions, long batchedRows) {
+
+        Snapshot minus(Snapshot earlier) {
+            return new Snapshot(executions - earlier.executions, batchedRows - earlier.batchedRows);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.clinic.loadtest;
+
+import com.clinic.loadtest.Seeder.HotSlot;
+import com.clinic.loadtest.Seeder.SeedData;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * The REST calls a phase is mixed from. Each simulated user acts as one seeded
+ * patient; staff reports run under a staff token.
+ */
+class Workload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final SeedData seed;
+    private final List<User> patients;
+    private final String staffToken;
+
+    final Operation listDoctors;
+    final Operation daySlots;
+    final Operation doctorSchedule;
+    final Operation myAppointments;
+    final Operation book;
+    final Operation myNotifications;
+    final Operation scheduleReport;
+
+    Workload(URI baseUri, SeedData seed, List<User> patients, String staffToken) {
+        this.baseUri = baseUri;
+        this.seed = seed;
+        this.patients = patients;
+        this.staffToken = staffToken;
+
+        this.listDoctors = new Operation("GET /api/doctors", (user, random) ->
+                get("/api/doctors", user.token()));
+
+        this.daySlots = new Operation("GET /api/slots", (user, random) ->
+                get("/api/slots?doctorId=" + anyDoctor(random) + "&date=" + anyDay(random), user.token()));
+
+        this.doctorSchedule = new Operation("GET /api/doctors/{id}/schedule", (user, random) ->
+                get("/api/doctors/" + anyDoctor(random) + "/schedule?date=" + anyDay(random), user.token()));
+
+        this.myAppointments = new Operation("GET /api/appointments", (user, random) ->
+                get("/api/appointments?patientId=" + user.patientId(), user.token()));
+
+        this.book = new Operation("POST /api/appointments", (user, random) -> {
+            HotSlot slot = seed.hotSlots().get(random.nextInt(seed.hotSlots().size()));
+            String body = String.format("{\"patientId\":%d,\"doctorId\":%d,\"slotId\":%d,\"type\":\"CONSULTATION\"}",
+                    user.patientId(), slot.doctorId(), slot.slotId());
+            return request("/api/appointments", user.token())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        });
+
+        this.myNotifications = new Operation("GET /api/notifications", (user, random) ->
+                get("/api/notifications?recipientId=" + user.patientId() + "&recipientType=PATIENT", user.token()));
+
+        this.scheduleReport = new Operation("GET /api/staff/reports/schedule", (user, random) -> {
+            LocalDate start = anyDay(random);
+            return get("/api/staff/reports/schedule?startDate=" + start + "&endDate=" + start.plusDays(6), staffToken);
+        });
+    }
+
+    User user(int index) {
+        return patients.get(index % patients.size());
+    }
+
+    private long anyDoctor(Random random) {
+        return seed.doctorIds().get(random.nextInt(seed.doctorIds().size()));
+    }
+
+    private LocalDate anyDay(Random random) {
+        int days = (int) (seed.lastDay().toEpochDay() - seed.firstDay().toEpochDay()) + 1;
+        return seed.firstDay().plusDays(random.nextInt(days));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    record User(long patientId, String token) {
+    }
+
+    record Operation(String name, BiFunction<User, Random, HttpRequest> request) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.clinic.logic.controller;
+
+import com.clinic.grpc.AppointmentListResponse;
+import com.clinic.grpc.AppointmentMessage;
+import com.clinic.grpc.AvailableSlotMessage;
+import com.clinic.logic.dto.ApiResponse;
+import com.clinic.logic.dto.AppointmentDTO;
+import com.clinic.logic.dto.SlotDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protobuf to DTO mapping and JSON rendering as done by the list endpoints, one
+ * operation per {@code rows} messages. Run with {@code -prof gc} for the
+ * allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param("10000")
+    private int rows;
+
+    private final AppointmentController appointmentController = new AppointmentController();
+    private final SlotController slotController = new SlotController();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] appointmentsWire;
+    private List<AppointmentMessage> appointments;
+    private List<AvailableSlotMessage> slots;
+
+    @Setup
+    public void setUp() {
+        LocalDate firstDay = LocalDate.of(2030, 1, 7);
+        AppointmentListResponse.Builder response = AppointmentListResponse.newBuilder();
+        slots = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String date = firstDay.plusDays(i / 400).toString();
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * (i % 20));
+            response.addAppointments(AppointmentMessage.newBuilder()
+                    .setAppointmentId(i + 1)
+                    .setPatientId(i % 500 + 1)
+                    .setPatientName("Patient " + i % 500)
+                    .setDoctorId(i % 20 + 1)
+                    .setDoctorName("Dr. Doctor " + (i % 20 + 1))
+                    .setDoctorSpecialization("Specialization " + i % 5)
+                    .setSlotId(i + 1)
+                    .setDate(date)
+                    .setStartTime(start.toString())
+                    .setEndTime(start.plusMinutes(30).toString())
+                    .setStatus("SCHEDULED")
+                    .setType("CONSULTATION"));
+            slots.add(AvailableSlotMessage.newBuilder()
+                    .setSlotId(i + 1)
+                    .setDoctorId(i % 20 + 1)
+                    .setDoctorName("Dr. Doctor " + (i % 20 + 1))
+                    .setDoctorSpecialization("Specialization " + i % 5)
+                    .setDate(date)
+                    .setStartTime(start.toString())
+                    .setEndTime(start.plusMinutes(30).toString())
+                    .setStatus("AVAILABLE")
+                    .build());
+        }
+        AppointmentListResponse built = response.build();
+        appointments = built.getAppointmentsList();
+        appointmentsWire = built.toByteArray();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> appointmentsToDTOs() {
+        return appointments.stream().map(appointmentController::convertToDTO).toList();
+    }
+
+    @Benchmark
+    public List<SlotDTO> slotsToDTOs() {
+        return slots.stream().map(slotController::convertToDTO).toList();
+    }
+
+    /** What an appointment list endpoint does end to end: parse the gRPC response, map, render JSON. */
+    @Benchmark
+    public byte[] appointmentsWireToJson() throws InvalidProtocolBufferException, JsonProcessingException {
+        List<AppointmentDTO> dtos = AppointmentListResponse.parseFrom(appointmentsWire).getAppointmentsList().stream()
+                .map(appointmentController::convertToDTO)
+                .toList();
+        return objectMapper.writeValueAsBytes(ApiResponse.success(dtos));
+    }
+}
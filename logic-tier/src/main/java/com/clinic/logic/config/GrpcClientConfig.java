@@ -2,11 +2,16 @@ package com.clinic.logic.config;
 
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -18,15 +23,27 @@ public class GrpcClientConfig {
     @Value("${grpc.data-tier.port:9090}")
     private int port;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     private ManagedChannel channel;
 
+    private ExecutorService executor;
+
     @Bean
-    public ManagedChannel managedChannel() {
-        channel = ManagedChannelBuilder.forAddress(host, port)
+    public ManagedChannel managedChannel(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        ManagedChannelBuilder<?> builder = ManagedChannelBuilder.forAddress(host, port)
                 .usePlaintext()
+                // Interceptors run last-added first: the call span wraps the metrics and carries the trace in the metadata
+                .intercept(new GrpcClientMetricsInterceptor(meterRegistry), new ObservationGrpcClientInterceptor(observationRegistry))
                 .keepAliveTime(30, TimeUnit.SECONDS)
-                .keepAliveTimeout(10, TimeUnit.SECONDS)
-                .build();
+                .keepAliveTimeout(10, TimeUnit.SECONDS);
+        if (virtualThreads) {
+            // Response callbacks and async continuations run on virtual threads instead of the shared cached pool
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-client-vt-", 0).factory());
+            builder.executor(executor);
+        }
+        channel = builder.build();
         return channel;
     }
 
@@ -40,5 +57,8 @@ public class GrpcClientConfig {
                 Thread.currentThread().interrupt();
             }
         }
+        if (executor != null) {
+            executor.shutdown();
+        }
     }
 }
\ No newline at end of file
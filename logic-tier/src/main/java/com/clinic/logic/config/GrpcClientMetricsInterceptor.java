@@ -0,0 +1,82 @@
+package com.clinic.logic.config;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call to the data tier as {@code grpc.client.calls}, tagged with the
+ * method and the status code it closed with, and records message sizes in both
+ * directions as {@code grpc.client.message.size}.
+ */
+class GrpcClientMetricsInterceptor implements ClientInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    GrpcClientMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        String name = method.getFullMethodName();
+        DistributionSummary sent = summary(name, "sent");
+        DistributionSummary received = summary(name, "received");
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onMessage(RespT message) {
+                        record(received, message);
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        sample.stop(Timer.builder("grpc.client.calls")
+                                .tag("method", name)
+                                .tag("result", status.getCode().name())
+                                .publishPercentileHistogram()
+                                .register(meterRegistry));
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                record(sent, message);
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    private DistributionSummary summary(String method, String direction) {
+        return DistributionSummary.builder("grpc.client.message.size")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static void record(DistributionSummary summary, Object message) {
+        if (message instanceof MessageLite protobuf) {
+            summary.record(protobuf.getSerializedSize());
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.clinic.logic.controller;
 
 import com.clinic.grpc.AppointmentMessage;
+import com.clinic.grpc.BookAppointmentRequest;
 import com.clinic.logic.dto.*;
+import com.clinic.logic.service.AsyncDataTierClient;
 import com.clinic.logic.service.DataTierClient;
+import com.clinic.logic.service.DataTierRequests;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 
 @RestController
@@ -19,65 +25,96 @@ public class AppointmentController {
     @Autowired
     private DataTierClient dataTierClient;
 
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> getAllAppointments() {
-        List<AppointmentMessage> appointments = dataTierClient.getAllAppointments();
+    @Autowired
+    private AsyncDataTierClient asyncDataTierClient;
 
-        List<AppointmentDTO> dtos = appointments.stream()
-                .map(this::convertToDTO)
-                .toList();
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Without a filter or a page every appointment is streamed
+    @GetMapping(params = {"!patientId", "!doctorId", "!status", "!dateFrom", "!dateTo", "!limit", "!cursor"})
+    public ResponseEntity<StreamingResponseBody> listAppointments() {
+        return StreamingApiResponse.of(objectMapper, dataTierClient::streamAllAppointments, this::convertToDTO);
+    }
 
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    @GetMapping
+    public DeferredResult<ResponseEntity<ApiResponse<PageDTO<AppointmentDTO>>>> getAllAppointments(
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String dateFrom,
+            @RequestParam(required = false) String dateTo,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        List<String> statuses = status != null
+                ? status.stream().map(String::toUpperCase).toList()
+                : List.of();
+        return DeferredApiResponse.of(asyncDataTierClient.getAppointmentsByFilter(patientId, doctorId, statuses,
+                        dateFrom, dateTo, limit != null ? limit : 0, cursor), result -> result
+                .map(page -> ResponseEntity.ok(ApiResponse.success(new PageDTO<>(
+                        page.getAppointmentsList().stream().map(this::convertToDTO).toList(),
+                        page.getNextCursor().isEmpty() ? null : page.getNextCursor()))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to load appointments"))));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> getAppointmentById(@PathVariable Long id) {
-        Optional<AppointmentMessage> result = dataTierClient.getAppointmentById(id);
-
-        if (result.isPresent()) {
-            AppointmentDTO dto = convertToDTO(result.get());
-            return ResponseEntity.ok(ApiResponse.success(dto));
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> getAppointmentById(@PathVariable Long id) {
+        return DeferredApiResponse.of(asyncDataTierClient.getAppointmentById(id), result -> result
+                .map(a -> ResponseEntity.ok(ApiResponse.success(convertToDTO(a))))
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @PostMapping
-    public ResponseEntity<ApiResponse<AppointmentDTO>> createAppointment(@RequestBody BookAppointmentDTO dto) {
-        Optional<AppointmentMessage> result = dataTierClient.bookAppointment(
-                dto.getPatientId(),
-                dto.getDoctorId(),
-                dto.getSlotId(),
-                dto.getType()
-        );
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> createAppointment(@RequestBody BookAppointmentDTO dto) {
+        return DeferredApiResponse.of(asyncDataTierClient.bookAppointment(
+                        dto.getPatientId(),
+                        dto.getDoctorId(),
+                        dto.getSlotId(),
+                        dto.getType()
+                ), result -> result
+                .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment booked successfully", convertToDTO(a))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to book appointment"))));
+    }
 
-        if (result.isPresent()) {
-            return ResponseEntity.ok(ApiResponse.success("Appointment booked successfully", convertToDTO(result.get())));
-        } else {
-            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to book appointment"));
-        }
+    @PostMapping("/batch")
+    public DeferredResult<ResponseEntity<ApiResponse<List<BookingResultDTO>>>> createAppointments(
+            @RequestBody List<BookAppointmentDTO> dtos) {
+        List<BookAppointmentRequest> items = dtos.stream()
+                .map(dto -> DataTierRequests.bookAppointment(
+                        dto.getPatientId(), dto.getDoctorId(), dto.getSlotId(), dto.getType()))
+                .toList();
+        return DeferredApiResponse.of(asyncDataTierClient.bookAppointments(items), result -> {
+            if (result.isEmpty()) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Failed to book appointments"));
+            }
+            List<BookingResultDTO> results = result.get().getResultsList().stream()
+                    .map(r -> new BookingResultDTO(r.getSlotId(), r.getStatus(),
+                            r.hasAppointment() ? convertToDTO(r.getAppointment()) : null))
+                    .toList();
+            if (result.get().getSuccess()) {
+                return ResponseEntity.ok(ApiResponse.success("Appointments booked successfully", results));
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse<>(false, "No appointments were booked", results));
+        });
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> cancelAppointment(
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> cancelAppointment(
             @PathVariable Long id,
             @RequestBody(required = false) CancelAppointmentDTO dto) {
 
         String cancelledBy = (dto != null) ? dto.getCancelledBy() : "PATIENT";
         String reason = (dto != null) ? dto.getReason() : "Cancelled by user";
 
-        Optional<AppointmentMessage> result = dataTierClient.cancelAppointment(id, cancelledBy, reason);
-
-        if (result.isPresent()) {
-            return ResponseEntity.ok(ApiResponse.success("Appointment cancelled", convertToDTO(result.get())));
-        } else {
-            return ResponseEntity.badRequest().body(ApiResponse.error("Failed to cancel appointment"));
-        }
+        return DeferredApiResponse.of(asyncDataTierClient.cancelAppointment(id, cancelledBy, reason), result -> result
+                .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment cancelled", convertToDTO(a))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to cancel appointment"))));
     }
 
 
     @PatchMapping("/{id}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> updateAppointment(
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> updateAppointment(
             @PathVariable Long id,
             @RequestBody Map<String, Object> body) {
 
@@ -86,13 +123,9 @@ public class AppointmentController {
             String status = (String) body.get("status");
             Long staffId = extractLong(body, "staffId", 0L);
 
-            Optional<AppointmentMessage> result = dataTierClient.updateAppointmentStatus(id, status, staffId);
-
-            if (result.isPresent()) {
-                return ResponseEntity.ok(ApiResponse.success("Appointment updated", convertToDTO(result.get())));
-            } else {
-                return ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment"));
-            }
+            return DeferredApiResponse.of(asyncDataTierClient.updateAppointmentStatus(id, status, staffId), result -> result
+                    .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment updated", convertToDTO(a))))
+                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment"))));
         }
 
 
@@ -100,16 +133,12 @@ public class AppointmentController {
             Long newDoctorId = extractLong(body, "doctorId", 0L);
             Long newSlotId = extractLong(body, "slotId", 0L);
 
-            Optional<AppointmentMessage> result = dataTierClient.reassignAppointment(id, newDoctorId, newSlotId);
-
-            if (result.isPresent()) {
-                return ResponseEntity.ok(ApiResponse.success("Appointment reassigned", convertToDTO(result.get())));
-            } else {
-                return ResponseEntity.badRequest().body(ApiResponse.error("Failed to reassign appointment"));
-            }
+            return DeferredApiResponse.of(asyncDataTierClient.reassignAppointment(id, newDoctorId, newSlotId), result -> result
+                    .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment reassigned", convertToDTO(a))))
+                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to reassign appointment"))));
         }
 
-        return ResponseEntity.badRequest().body(ApiResponse.error("No valid update fields provided"));
+        return DeferredApiResponse.completed(ResponseEntity.badRequest().body(ApiResponse.error("No valid update fields provided")));
     }
 
     private Long extractLong(Map<String, Object> map, String key, Long defaultValue) {
@@ -120,7 +149,8 @@ public class AppointmentController {
         return defaultValue;
     }
 
-    private AppointmentDTO convertToDTO(AppointmentMessage message) {
+    // Package-private for the JMH benchmarks in src/jmh/java
+    AppointmentDTO convertToDTO(AppointmentMessage message) {
         return new AppointmentDTO(
                 message.getAppointmentId(),
                 message.getPatientId(),
@@ -5,7 +5,9 @@ import com.clinic.grpc.StatusResponse;
 import com.clinic.logic.dto.*;
 import com.clinic.logic.security.JwtUtil;
 import com.clinic.logic.service.DataTierClient;
+import io.grpc.StatusRuntimeException;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,11 +31,18 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<Map<String, Object>>> login(@Valid @RequestBody LoginDTO loginDTO) {
-        LoginResponse response = dataTierClient.login(
-                loginDTO.getEmail(),
-                loginDTO.getPassword(),
-                loginDTO.getUserType()
-        );
+        LoginResponse response;
+        try {
+            response = dataTierClient.login(
+                    loginDTO.getEmail(),
+                    loginDTO.getPassword(),
+                    loginDTO.getUserType()
+            );
+        } catch (StatusRuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Too many logins in progress, please retry shortly"));
+        }
 
         if (response.getSuccess()) {
             // ← NEW: Generate a proper JWT token instead of using the simple token
@@ -65,15 +74,22 @@ public class AuthController {
             );
         }
 
-        StatusResponse response = dataTierClient.register(
-                registerDTO.getName(),
-                registerDTO.getEmail(),
-                registerDTO.getPhone(),
-                registerDTO.getPassword(),
-                "PATIENT",
-                null,
-                null
-        );
+        StatusResponse response;
+        try {
+            response = dataTierClient.register(
+                    registerDTO.getName(),
+                    registerDTO.getEmail(),
+                    registerDTO.getPhone(),
+                    registerDTO.getPassword(),
+                    "PATIENT",
+                    null,
+                    null
+            );
+        } catch (StatusRuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error("Too many registrations in progress, please retry shortly"));
+        }
 
         if (response.getSuccess()) {
             return ResponseEntity.status(HttpStatus.CREATED)
@@ -0,0 +1,52 @@
+package com.clinic.logic.controller;
+
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Releases the servlet thread while a data-tier call is in flight and completes
+ * the response from the gRPC callback. If the request times out or the
+ * connection fails first, the call is cancelled.
+ */
+final class DeferredApiResponse {
+
+    private DeferredApiResponse() {
+    }
+
+    static <T, R> DeferredResult<R> of(CompletableFuture<T> call, Function<T, R> mapper) {
+        return of(call, mapper, null);
+    }
+
+    /**
+     * As {@link #of(CompletableFuture, Function)}, answering a failed call with
+     * {@code onError} instead of an error result.
+     */
+    static <T, R> DeferredResult<R> of(CompletableFuture<T> call, Function<T, R> mapper,
+                                       Function<Throwable, R> onError) {
+        DeferredResult<R> result = new DeferredResult<>();
+        result.onTimeout(() -> call.cancel(true));
+        result.onError(error -> call.cancel(true));
+        call.whenComplete((value, error) -> {
+            try {
+                if (error == null) {
+                    result.setResult(mapper.apply(value));
+                } else if (onError != null) {
+                    result.setResult(onError.apply(error));
+                } else {
+                    result.setErrorResult(error);
+                }
+            } catch (RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        return result;
+    }
+
+    static <R> DeferredResult<R> completed(R value) {
+        DeferredResult<R> result = new DeferredResult<>();
+        result.setResult(value);
+        return result;
+    }
+}
@@ -5,10 +5,15 @@ import com.clinic.grpc.AvailableSlotMessage;
 import com.clinic.grpc.DoctorMessage;
 import com.clinic.grpc.NotificationMessage;
 import com.clinic.logic.dto.*;
+import com.clinic.logic.service.AsyncDataTierClient;
 import com.clinic.logic.service.DataTierClient;
+import com.clinic.logic.service.DoctorDirectoryCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -20,93 +25,99 @@ public class DoctorController {
     @Autowired
     private DataTierClient dataTierClient;
 
+    @Autowired
+    private AsyncDataTierClient asyncDataTierClient;
+
+    @Autowired
+    private DoctorDirectoryCache doctorDirectoryCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<DoctorDTO>>> getAllDoctors() {
-        List<DoctorMessage> doctors = dataTierClient.getAllDoctors();
-        List<DoctorDTO> dtos = doctors.stream()
-                .map(this::convertToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public DeferredResult<ResponseEntity<ApiResponse<List<DoctorDTO>>>> getAllDoctors() {
+        return DeferredApiResponse.of(doctorDirectoryCache.getAllDoctors(), doctors -> {
+            List<DoctorDTO> dtos = doctors.stream()
+                    .map(this::convertToDTO)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success(dtos));
+        });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<DoctorDTO>> getDoctorById(@PathVariable Long id) {
-        return dataTierClient.getDoctorById(id)
+    public DeferredResult<ResponseEntity<ApiResponse<DoctorDTO>>> getDoctorById(@PathVariable Long id) {
+        return DeferredApiResponse.of(doctorDirectoryCache.getDoctorById(id), result -> result
                 .map(doctor -> ResponseEntity.ok(ApiResponse.success(convertToDTO(doctor))))
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @GetMapping("/specialization/{specialization}")
-    public ResponseEntity<ApiResponse<List<DoctorDTO>>> getDoctorsBySpecialization(@PathVariable String specialization) {
-        List<DoctorMessage> doctors = dataTierClient.getDoctorsBySpecialization(specialization);
-        List<DoctorDTO> dtos = doctors.stream()
-                .map(this::convertToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public DeferredResult<ResponseEntity<ApiResponse<List<DoctorDTO>>>> getDoctorsBySpecialization(@PathVariable String specialization) {
+        return DeferredApiResponse.of(doctorDirectoryCache.getDoctorsBySpecialization(specialization), doctors -> {
+            List<DoctorDTO> dtos = doctors.stream()
+                    .map(this::convertToDTO)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success(dtos));
+        });
     }
 
     @GetMapping("/{id}/appointments")
-    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> getDoctorAppointments(@PathVariable Long id) {
-        List<AppointmentMessage> appointments = dataTierClient.getDoctorAppointments(id);
-        List<AppointmentDTO> dtos = appointments.stream()
-                .map(this::convertAppointmentToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getDoctorAppointments(@PathVariable Long id) {
+        return StreamingApiResponse.of(objectMapper,
+                consumer -> dataTierClient.streamDoctorAppointments(id, consumer),
+                this::convertAppointmentToDTO);
     }
 
     @GetMapping("/{id}/schedule")
-    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> getDoctorDailySchedule(
+    public DeferredResult<ResponseEntity<ApiResponse<List<AppointmentDTO>>>> getDoctorDailySchedule(
             @PathVariable Long id,
             @RequestParam(required = false) String date) {
         String scheduleDate = date != null ? date : LocalDate.now().toString();
-        List<AppointmentMessage> appointments = dataTierClient.getDoctorDailySchedule(id, scheduleDate);
-        List<AppointmentDTO> dtos = appointments.stream()
-                .map(this::convertAppointmentToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+        return DeferredApiResponse.of(asyncDataTierClient.getDoctorDailySchedule(id, scheduleDate), appointments -> {
+            List<AppointmentDTO> dtos = appointments.stream()
+                    .map(this::convertAppointmentToDTO)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success(dtos));
+        });
     }
 
     @GetMapping("/{id}/slots")
-    public ResponseEntity<ApiResponse<List<SlotDTO>>> getDoctorSlots(@PathVariable Long id) {
-        List<AvailableSlotMessage> slots = dataTierClient.getDoctorSlots(id);
-        List<SlotDTO> dtos = slots.stream()
-                .map(this::convertSlotToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getDoctorSlots(@PathVariable Long id) {
+        return StreamingApiResponse.of(objectMapper,
+                consumer -> dataTierClient.streamDoctorSlots(id, consumer),
+                this::convertSlotToDTO);
     }
 
     @GetMapping("/{id}/notifications")
-    public ResponseEntity<ApiResponse<List<NotificationDTO>>> getDoctorNotifications(@PathVariable Long id) {
-        List<NotificationMessage> notifications = dataTierClient.getUserNotifications(id, "DOCTOR");
-        List<NotificationDTO> dtos = notifications.stream()
-                .map(this::convertNotificationToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getDoctorNotifications(@PathVariable Long id) {
+        return StreamingApiResponse.of(objectMapper,
+                consumer -> dataTierClient.streamUserNotifications(id, "DOCTOR", consumer),
+                this::convertNotificationToDTO);
     }
 
     @PatchMapping("/{doctorId}/appointments/{appointmentId}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> updateAppointment(
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> updateAppointment(
             @PathVariable Long doctorId,
             @PathVariable Long appointmentId,
             @RequestBody java.util.Map<String, String> body) {
         String status = body.get("status");
         if (status != null) {
-            return dataTierClient.updateAppointmentStatus(appointmentId, status, 0)
+            return DeferredApiResponse.of(asyncDataTierClient.updateAppointmentStatus(appointmentId, status, 0), result -> result
                     .map(appointment -> ResponseEntity.ok(ApiResponse.success("Appointment updated", convertAppointmentToDTO(appointment))))
-                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment")));
+                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment"))));
         }
-        return ResponseEntity.badRequest().body(ApiResponse.error("No valid update fields provided"));
+        return DeferredApiResponse.completed(ResponseEntity.badRequest().body(ApiResponse.error("No valid update fields provided")));
     }
 
     @DeleteMapping("/{doctorId}/appointments/{appointmentId}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> cancelAppointment(
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> cancelAppointment(
             @PathVariable Long doctorId,
             @PathVariable Long appointmentId,
             @RequestBody(required = false) java.util.Map<String, String> body) {
         String reason = body != null ? body.getOrDefault("reason", "Cancelled by doctor") : "Cancelled by doctor";
-        return dataTierClient.cancelAppointment(appointmentId, "DOCTOR", reason)
+        return DeferredApiResponse.of(asyncDataTierClient.cancelAppointment(appointmentId, "DOCTOR", reason), result -> result
                 .map(appointment -> ResponseEntity.ok(ApiResponse.success("Appointment cancelled", convertAppointmentToDTO(appointment))))
-                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to cancel appointment")));
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to cancel appointment"))));
     }
 
     private DoctorDTO convertToDTO(DoctorMessage message) {
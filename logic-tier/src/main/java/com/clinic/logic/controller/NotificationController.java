@@ -2,11 +2,22 @@ package com.clinic.logic.controller;
 
 import com.clinic.grpc.NotificationMessage;
 import com.clinic.logic.dto.*;
-import com.clinic.logic.service.DataTierClient;
+import com.clinic.logic.service.AsyncDataTierClient;
+import com.clinic.logic.service.NotificationStreamClient;
+import io.grpc.Context;
+import io.grpc.stub.StreamObserver;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -15,45 +26,175 @@ import java.util.Map;
 public class NotificationController {
 
     @Autowired
-    private DataTierClient dataTierClient;
+    private AsyncDataTierClient asyncDataTierClient;
 
+    @Autowired
+    private NotificationStreamClient notificationStreamClient;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long streamTimeoutMillis;
 
+    // GET /api/notifications - the signed-in user's notifications; staff may name another recipient
     @GetMapping
-    public ResponseEntity<ApiResponse<List<NotificationDTO>>> getNotifications(
+    public DeferredResult<ResponseEntity<ApiResponse<?>>> getNotifications(
+            Authentication authentication,
             @RequestParam(required = false) Long recipientId,
-            @RequestParam(required = false) String recipientType) {
+            @RequestParam(required = false) String recipientType,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String since) {
+
+        if ((recipientId == null) != (recipientType == null)) {
+            return DeferredApiResponse.completed(ResponseEntity.badRequest().body(
+                    ApiResponse.error("Both recipientId and recipientType are required")));
+        }
+        if (since != null && (limit != null || cursor != null)) {
+            return DeferredApiResponse.completed(ResponseEntity.badRequest().body(
+                    ApiResponse.error("since cannot be combined with limit or cursor")));
+        }
+
+        long principalId = (Long) authentication.getPrincipal();
+        String principalType = recipientType(authentication);
+        if (recipientId == null) {
+            recipientId = principalId;
+            recipientType = principalType;
+        } else if (!"STAFF".equals(principalType)
+                && (recipientId != principalId || !recipientType.equalsIgnoreCase(principalType))) {
+            return DeferredApiResponse.completed(ResponseEntity.status(HttpStatus.FORBIDDEN).body(
+                    ApiResponse.error("Only staff can read another user's notifications")));
+        }
+
+        if (limit != null || cursor != null) {
+            return DeferredApiResponse.of(asyncDataTierClient.getUserNotificationsPage(
+                    recipientId, recipientType.toUpperCase(), limit != null ? limit : 0, cursor), page -> {
+                if (page.isEmpty()) {
+                    return ResponseEntity.badRequest().body(ApiResponse.error("Failed to load notifications"));
+                }
+                List<NotificationDTO> items = page.get().getNotificationsList().stream()
+                        .map(this::convertToDTO)
+                        .toList();
+                String nextCursor = page.get().getNextCursor();
+                return ResponseEntity.ok(ApiResponse.success(new PageDTO<>(items, nextCursor.isEmpty() ? null : nextCursor)));
+            });
+        }
+
+        if (since != null) {
+            return DeferredApiResponse.of(asyncDataTierClient.getUserNotificationsSince(
+                    recipientId, recipientType.toUpperCase(), since), delta -> {
+                List<NotificationDTO> dtos = delta.stream()
+                        .map(this::convertToDTO)
+                        .toList();
+                return ResponseEntity.ok(ApiResponse.success(dtos));
+            }, error -> ResponseEntity.badRequest().body(
+                    ApiResponse.error(io.grpc.Status.fromThrowable(error).getDescription())));
+        }
+
+        return DeferredApiResponse.of(asyncDataTierClient.getUserNotifications(
+                recipientId, recipientType.toUpperCase()), notifications -> {
+            List<NotificationDTO> dtos = notifications.stream()
+                    .map(this::convertToDTO)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success(dtos));
+        });
+    }
 
-        if (recipientId == null || recipientType == null) {
-            return ResponseEntity.badRequest().body(
-                    ApiResponse.error("Both recipientId and recipientType are required"));
+    // GET /api/notifications/unread-count - the signed-in user's counter
+    @GetMapping("/unread-count")
+    public DeferredResult<ResponseEntity<ApiResponse<Map<String, Long>>>> getUnreadCount(Authentication authentication) {
+
+        return DeferredApiResponse.of(asyncDataTierClient.getUnreadNotificationCount(
+                (Long) authentication.getPrincipal(), recipientType(authentication)), result -> result
+                .map(count -> ResponseEntity.ok(ApiResponse.success(Map.of("unreadCount", count))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to load unread count"))));
+    }
+
+    // PATCH /api/notifications - marks the signed-in user's notifications read, all of them or those up to upToId
+    @PatchMapping
+    public DeferredResult<ResponseEntity<ApiResponse<Map<String, Long>>>> updateNotifications(
+            Authentication authentication,
+            @RequestBody Map<String, String> body) {
+
+        if (!"READ".equalsIgnoreCase(body.get("status"))) {
+            return DeferredApiResponse.completed(ResponseEntity.badRequest().body(ApiResponse.error("Invalid status value")));
+        }
+        long upToId;
+        try {
+            upToId = body.get("upToId") != null ? Long.parseLong(body.get("upToId")) : 0L;
+        } catch (NumberFormatException e) {
+            return DeferredApiResponse.completed(ResponseEntity.badRequest().body(
+                    ApiResponse.error("upToId must be a notification id")));
         }
+        return DeferredApiResponse.of(asyncDataTierClient.markNotificationsAsRead(
+                (Long) authentication.getPrincipal(), recipientType(authentication), upToId), result -> result
+                .map(r -> ResponseEntity.ok(ApiResponse.success("Notifications updated",
+                        Map.of("updated", (long) r.getUpdated(), "unreadCount", r.getUnreadCount()))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update notifications"))));
+    }
 
-        List<NotificationMessage> notifications = dataTierClient.getUserNotifications(
-                recipientId, recipientType.toUpperCase());
-        List<NotificationDTO> dtos = notifications.stream()
-                .map(this::convertToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    /**
+     * Server-sent events for the signed-in user's new notifications, one event per
+     * notification with its id as the event id. A reconnect that sends
+     * {@code Last-Event-ID} (or {@code afterId}) first receives what it missed.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            Authentication authentication,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long afterId) {
+
+        long recipientId = (Long) authentication.getPrincipal();
+        String recipientType = recipientType(authentication);
+        long resumeAfter = lastEventId != null ? lastEventId : afterId != null ? afterId : 0L;
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Context.CancellableContext subscription = notificationStreamClient.subscribe(
+                recipientId, recipientType, resumeAfter, new StreamObserver<>() {
+                    @Override
+                    public void onNext(NotificationMessage message) {
+                        try {
+                            emitter.send(SseEmitter.event()
+                                    .id(Long.toString(message.getNotificationId()))
+                                    .name("notification")
+                                    .data(convertToDTO(message), MediaType.APPLICATION_JSON));
+                        } catch (IOException | IllegalStateException e) {
+                            emitter.completeWithError(e);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        emitter.completeWithError(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(() -> subscription.cancel(null));
+        emitter.onTimeout(() -> subscription.cancel(null));
+        emitter.onError(error -> subscription.cancel(null));
+        return emitter;
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<ApiResponse<NotificationDTO>> updateNotification(
+    public DeferredResult<ResponseEntity<ApiResponse<NotificationDTO>>> updateNotification(
             @PathVariable Long id,
             @RequestBody Map<String, String> body) {
 
         String status = body.get("status");
         if ("READ".equalsIgnoreCase(status)) {
-            return dataTierClient.markNotificationAsRead(id)
+            return DeferredApiResponse.of(asyncDataTierClient.markNotificationAsRead(id), result -> result
                     .map(n -> ResponseEntity.ok(ApiResponse.success("Notification updated", convertToDTO(n))))
-                    .orElse(ResponseEntity.notFound().build());
+                    .orElse(ResponseEntity.notFound().build()));
         }
 
-        return ResponseEntity.badRequest().body(ApiResponse.error("Invalid status value"));
+        return DeferredApiResponse.completed(ResponseEntity.badRequest().body(ApiResponse.error("Invalid status value")));
     }
 
     @PostMapping
-    public ResponseEntity<ApiResponse<NotificationDTO>> createNotification(@RequestBody NotificationDTO dto) {
-        return dataTierClient.sendNotification(
+    public DeferredResult<ResponseEntity<ApiResponse<NotificationDTO>>> createNotification(@RequestBody NotificationDTO dto) {
+        return DeferredApiResponse.of(asyncDataTierClient.sendNotification(
                         dto.getAppointmentId() != null ? dto.getAppointmentId() : 0L,
                         dto.getStaffId() != null ? dto.getStaffId() : 0L,
                         dto.getRecipientId(),
@@ -61,8 +202,19 @@ public class NotificationController {
                         dto.getMessage(),
                         dto.getType(),
                         dto.getChannel()
-                ).map(n -> ResponseEntity.ok(ApiResponse.success("Notification created", convertToDTO(n))))
-                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create notification")));
+                ), result -> result
+                .map(n -> ResponseEntity.ok(ApiResponse.success("Notification created", convertToDTO(n))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create notification"))));
+    }
+
+    // The user type the JWT filter granted as ROLE_<type>
+    private String recipientType(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse("");
     }
 
     private NotificationDTO convertToDTO(NotificationMessage message) {
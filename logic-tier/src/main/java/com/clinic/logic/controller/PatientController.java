@@ -4,12 +4,14 @@ import com.clinic.grpc.AppointmentMessage;
 import com.clinic.grpc.NotificationMessage;
 import com.clinic.grpc.PatientMessage;
 import com.clinic.logic.dto.*;
+import com.clinic.logic.service.AsyncDataTierClient;
 import com.clinic.logic.service.DataTierClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -18,46 +20,43 @@ import java.util.List;
 public class PatientController {
 
     private final DataTierClient dataTierClient;
+    private final AsyncDataTierClient asyncDataTierClient;
+    private final ObjectMapper objectMapper;
 
-    public PatientController(DataTierClient dataTierClient) {
+    public PatientController(DataTierClient dataTierClient, AsyncDataTierClient asyncDataTierClient,
+                             ObjectMapper objectMapper) {
         this.dataTierClient = dataTierClient;
+        this.asyncDataTierClient = asyncDataTierClient;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<PatientDTO>>> getAllPatients() {
-        List<PatientMessage> patients = dataTierClient.getAllPatients();
-        List<PatientDTO> dtos = patients.stream()
-                .map(this::convertToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getAllPatients() {
+        return StreamingApiResponse.of(objectMapper, dataTierClient::streamAllPatients, this::convertToDTO);
     }
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<PatientDTO>> getPatientById(@PathVariable Long id) {
-        return dataTierClient.getPatientById(id)
+    public DeferredResult<ResponseEntity<ApiResponse<PatientDTO>>> getPatientById(@PathVariable Long id) {
+        return DeferredApiResponse.of(asyncDataTierClient.getPatientById(id), result -> result
                 .map(patient -> ResponseEntity.ok(ApiResponse.success(convertToDTO(patient))))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ApiResponse.error("Patient not found with ID: " + id)));
+                        .body(ApiResponse.error("Patient not found with ID: " + id))));
     }
 
 
     @GetMapping("/{id}/appointments")
-    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> getPatientAppointments(@PathVariable Long id) {
-        List<AppointmentMessage> appointments = dataTierClient.getPatientAppointments(id);
-        List<AppointmentDTO> dtos = appointments.stream()
-                .map(this::convertAppointmentToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getPatientAppointments(@PathVariable Long id) {
+        return StreamingApiResponse.of(objectMapper,
+                consumer -> dataTierClient.streamPatientAppointments(id, consumer),
+                this::convertAppointmentToDTO);
     }
 
     @GetMapping("/{id}/notifications")
-    public ResponseEntity<ApiResponse<List<NotificationDTO>>> getPatientNotifications(@PathVariable Long id) {
-        List<NotificationMessage> notifications = dataTierClient.getUserNotifications(id, "PATIENT");
-        List<NotificationDTO> dtos = notifications.stream()
-                .map(this::convertNotificationToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getPatientNotifications(@PathVariable Long id) {
+        return StreamingApiResponse.of(objectMapper,
+                consumer -> dataTierClient.streamUserNotifications(id, "PATIENT", consumer),
+                this::convertNotificationToDTO);
     }
 
 
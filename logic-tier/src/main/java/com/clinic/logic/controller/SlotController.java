@@ -2,11 +2,16 @@ package com.clinic.logic.controller;
 
 import com.clinic.grpc.AvailableSlotMessage;
 import com.clinic.logic.dto.ApiResponse;
+import com.clinic.logic.dto.PageDTO;
 import com.clinic.logic.dto.SlotDTO;
+import com.clinic.logic.service.AsyncDataTierClient;
 import com.clinic.logic.service.DataTierClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,51 +22,82 @@ public class SlotController {
     @Autowired
     private DataTierClient dataTierClient;
 
+    @Autowired
+    private AsyncDataTierClient asyncDataTierClient;
 
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<SlotDTO>>> getSlots(
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Without a range or a page the whole list is streamed, in slot id order
+    @GetMapping(params = {"!dateFrom", "!dateTo", "!limit", "!cursor"})
+    public ResponseEntity<StreamingResponseBody> listSlots(
             @RequestParam(required = false) Long doctorId,
             @RequestParam(required = false) String date,
             @RequestParam(required = false) String status) {
 
-        List<AvailableSlotMessage> slots;
-
-        if ("available".equalsIgnoreCase(status)) {
-            slots = dataTierClient.getAvailableSlots(doctorId, date);
-        } else if (doctorId != null) {
-            slots = dataTierClient.getDoctorSlots(doctorId);
-        } else {
-            slots = dataTierClient.getAvailableSlots(doctorId, date);
+        if (doctorId != null && !"available".equalsIgnoreCase(status)) {
+            return StreamingApiResponse.of(objectMapper,
+                    consumer -> dataTierClient.streamDoctorSlots(doctorId, consumer),
+                    this::convertToDTO);
         }
+        return StreamingApiResponse.of(objectMapper,
+                consumer -> dataTierClient.streamAvailableSlots(doctorId, date, consumer),
+                this::convertToDTO);
+    }
 
-        List<SlotDTO> dtos = slots.stream()
-                .map(this::convertToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    @GetMapping
+    public DeferredResult<ResponseEntity<ApiResponse<?>>> getSlots(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String dateFrom,
+            @RequestParam(required = false) String dateTo,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+
+        // A page only when one is asked for, as for notifications; a date range alone lists every match
+        boolean paged = limit != null || cursor != null;
+        return DeferredApiResponse.of(asyncDataTierClient.getSlotsPage(doctorId, date, dateFrom, dateTo,
+                status != null ? status.toUpperCase() : null, limit != null ? limit : 0, cursor), result -> {
+            if (result.isEmpty()) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Failed to load slots"));
+            }
+            List<SlotDTO> items = result.get().getSlotsList().stream()
+                    .map(this::convertToDTO)
+                    .toList();
+            if (!paged) {
+                return ResponseEntity.ok(ApiResponse.success(items));
+            }
+            String nextCursor = result.get().getNextCursor();
+            return ResponseEntity.ok(ApiResponse.success(new PageDTO<>(items, nextCursor.isEmpty() ? null : nextCursor)));
+        });
     }
 
     @PostMapping
-    public ResponseEntity<ApiResponse<SlotDTO>> createSlot(@RequestBody SlotDTO slotDTO) {
-        return dataTierClient.createSlot(
+    public DeferredResult<ResponseEntity<ApiResponse<SlotDTO>>> createSlot(@RequestBody SlotDTO slotDTO) {
+        return DeferredApiResponse.of(asyncDataTierClient.createSlot(
                         slotDTO.getDoctorId(),
                         slotDTO.getDate(),
                         slotDTO.getStartTime(),
                         slotDTO.getEndTime()
-                ).map(s -> ResponseEntity.ok(ApiResponse.success("Slot created", convertToDTO(s))))
-                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create slot")));
+                ), result -> result
+                .map(s -> ResponseEntity.ok(ApiResponse.success("Slot created", convertToDTO(s))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create slot"))));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<String>> deleteSlot(@PathVariable Long id) {
-        var response = dataTierClient.deleteSlot(id);
-        if (response.getSuccess()) {
-            return ResponseEntity.ok(ApiResponse.success(response.getMessage(), null));
-        } else {
-            return ResponseEntity.badRequest().body(ApiResponse.error(response.getMessage()));
-        }
+    public DeferredResult<ResponseEntity<ApiResponse<String>>> deleteSlot(@PathVariable Long id) {
+        return DeferredApiResponse.of(asyncDataTierClient.deleteSlot(id), response -> {
+            if (response.getSuccess()) {
+                return ResponseEntity.ok(ApiResponse.success(response.getMessage(), null));
+            } else {
+                return ResponseEntity.badRequest().body(ApiResponse.error(response.getMessage()));
+            }
+        });
     }
 
-    private SlotDTO convertToDTO(AvailableSlotMessage message) {
+    // Package-private for the JMH benchmarks in src/jmh/java
+    SlotDTO convertToDTO(AvailableSlotMessage message) {
         return new SlotDTO(
                 message.getSlotId(),
                 message.getDoctorId(),
@@ -2,10 +2,15 @@ package com.clinic.logic.controller;
 
 import com.clinic.grpc.*;
 import com.clinic.logic.dto.*;
+import com.clinic.logic.service.AsyncDataTierClient;
 import com.clinic.logic.service.DataTierClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -18,98 +23,120 @@ public class StaffController {
     @Autowired
     private DataTierClient dataTierClient;
 
+    @Autowired
+    private AsyncDataTierClient asyncDataTierClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
     @GetMapping("/appointments")
-    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> getAllAppointments() {
-        List<AppointmentMessage> appointments = dataTierClient.getAllAppointments();
-        List<AppointmentDTO> dtos = appointments.stream()
-                .map(this::convertAppointmentToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+    public ResponseEntity<StreamingResponseBody> getAllAppointments() {
+        return StreamingApiResponse.of(objectMapper, dataTierClient::streamAllAppointments, this::convertAppointmentToDTO);
     }
 
 
     @PatchMapping("/appointments/{id}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> updateAppointment(
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> updateAppointment(
             @PathVariable Long id,
             @RequestBody Map<String, Object> body) {
 
         if (body.containsKey("doctorId") || body.containsKey("slotId")) {
             Long newDoctorId = body.get("doctorId") != null ? ((Number) body.get("doctorId")).longValue() : 0L;
             Long newSlotId = body.get("slotId") != null ? ((Number) body.get("slotId")).longValue() : 0L;
-            return dataTierClient.reassignAppointment(id, newDoctorId, newSlotId)
+            return DeferredApiResponse.of(asyncDataTierClient.reassignAppointment(id, newDoctorId, newSlotId), result -> result
                     .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment updated", convertAppointmentToDTO(a))))
-                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment")));
+                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment"))));
         }
 
         if (body.containsKey("status")) {
             String status = (String) body.get("status");
             Long staffId = body.get("staffId") != null ? ((Number) body.get("staffId")).longValue() : 0L;
-            return dataTierClient.updateAppointmentStatus(id, status, staffId)
+            return DeferredApiResponse.of(asyncDataTierClient.updateAppointmentStatus(id, status, staffId), result -> result
                     .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment updated", convertAppointmentToDTO(a))))
-                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment")));
+                    .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to update appointment"))));
         }
 
-        return ResponseEntity.badRequest().body(ApiResponse.error("No valid update fields provided"));
+        return DeferredApiResponse.completed(ResponseEntity.badRequest().body(ApiResponse.error("No valid update fields provided")));
     }
 
     @DeleteMapping("/appointments/{id}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> cancelAppointment(
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> cancelAppointment(
             @PathVariable Long id,
             @RequestBody(required = false) Map<String, Object> body) {
         String reason = (body != null && body.get("reason") != null)
                 ? (String) body.get("reason")
                 : "Cancelled by staff";
 
-        return dataTierClient.cancelAppointment(id, "STAFF", reason)
+        return DeferredApiResponse.of(asyncDataTierClient.cancelAppointment(id, "STAFF", reason), result -> result
                 .map(a -> ResponseEntity.ok(ApiResponse.success("Appointment cancelled", convertAppointmentToDTO(a))))
-                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to cancel appointment")));
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to cancel appointment"))));
     }
 
     @GetMapping("/appointments/{id}")
-    public ResponseEntity<ApiResponse<AppointmentDTO>> getAppointmentById(@PathVariable Long id) {
-        return dataTierClient.getAppointmentById(id)
+    public DeferredResult<ResponseEntity<ApiResponse<AppointmentDTO>>> getAppointmentById(@PathVariable Long id) {
+        return DeferredApiResponse.of(asyncDataTierClient.getAppointmentById(id), result -> result
                 .map(a -> ResponseEntity.ok(ApiResponse.success(convertAppointmentToDTO(a))))
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
 
     @GetMapping("/slots")
-    public ResponseEntity<ApiResponse<List<SlotDTO>>> getAvailableSlots(
+    public DeferredResult<ResponseEntity<ApiResponse<List<SlotDTO>>>> getAvailableSlots(
             @RequestParam(required = false) Long doctorId,
             @RequestParam(required = false) String date) {
-        List<AvailableSlotMessage> slots = dataTierClient.getAvailableSlots(doctorId, date);
-        List<SlotDTO> dtos = slots.stream()
-                .map(this::convertSlotToDTO)
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(dtos));
+        return DeferredApiResponse.of(asyncDataTierClient.getAvailableSlots(doctorId, date), slots -> {
+            List<SlotDTO> dtos = slots.stream()
+                    .map(this::convertSlotToDTO)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success(dtos));
+        });
     }
 
     @PostMapping("/slots")
-    public ResponseEntity<ApiResponse<SlotDTO>> createSlot(@RequestBody SlotDTO slotDTO) {
-        return dataTierClient.createSlot(
+    public DeferredResult<ResponseEntity<ApiResponse<SlotDTO>>> createSlot(@RequestBody SlotDTO slotDTO) {
+        return DeferredApiResponse.of(asyncDataTierClient.createSlot(
                         slotDTO.getDoctorId(),
                         slotDTO.getDate(),
                         slotDTO.getStartTime(),
                         slotDTO.getEndTime()
-                ).map(s -> ResponseEntity.ok(ApiResponse.success("Slot created", convertSlotToDTO(s))))
-                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create slot")));
+                ), result -> result
+                .map(s -> ResponseEntity.ok(ApiResponse.success("Slot created", convertSlotToDTO(s))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create slot"))));
+    }
+
+    @PostMapping("/slots/generate")
+    public DeferredResult<ResponseEntity<ApiResponse<Map<String, Integer>>>> generateSlots(@Valid @RequestBody GenerateSlotsDTO dto) {
+        GenerateSlotsRequest request = GenerateSlotsRequest.newBuilder()
+                .addAllDoctorIds(dto.getDoctorIds())
+                .setDateFrom(dto.getDateFrom())
+                .setDateTo(dto.getDateTo())
+                .addAllDaysOfWeek(dto.getDaysOfWeek() != null ? dto.getDaysOfWeek() : List.of())
+                .setDayStart(dto.getDayStart())
+                .setDayEnd(dto.getDayEnd())
+                .setSlotMinutes(dto.getSlotMinutes())
+                .build();
+        return DeferredApiResponse.of(asyncDataTierClient.generateSlots(request), result -> result
+                .map(r -> ResponseEntity.ok(ApiResponse.success("Slots generated",
+                        Map.of("created", r.getCreated(), "skipped", r.getSkipped()))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to generate slots"))));
     }
 
     @DeleteMapping("/slots/{id}")
-    public ResponseEntity<ApiResponse<String>> deleteSlot(@PathVariable Long id) {
-        StatusResponse response = dataTierClient.deleteSlot(id);
-        if (response.getSuccess()) {
-            return ResponseEntity.ok(ApiResponse.success(response.getMessage(), null));
-        } else {
-            return ResponseEntity.badRequest().body(ApiResponse.error(response.getMessage()));
-        }
+    public DeferredResult<ResponseEntity<ApiResponse<String>>> deleteSlot(@PathVariable Long id) {
+        return DeferredApiResponse.of(asyncDataTierClient.deleteSlot(id), response -> {
+            if (response.getSuccess()) {
+                return ResponseEntity.ok(ApiResponse.success(response.getMessage(), null));
+            } else {
+                return ResponseEntity.badRequest().body(ApiResponse.error(response.getMessage()));
+            }
+        });
     }
 
 
     @PostMapping("/notifications")
-    public ResponseEntity<ApiResponse<NotificationDTO>> createNotification(@RequestBody NotificationDTO dto) {
-        return dataTierClient.sendNotification(
+    public DeferredResult<ResponseEntity<ApiResponse<NotificationDTO>>> createNotification(@RequestBody NotificationDTO dto) {
+        return DeferredApiResponse.of(asyncDataTierClient.sendNotification(
                         dto.getAppointmentId() != null ? dto.getAppointmentId() : 0L,
                         dto.getStaffId() != null ? dto.getStaffId() : 0L,
                         dto.getRecipientId(),
@@ -117,19 +144,23 @@ public class StaffController {
                         dto.getMessage(),
                         dto.getType(),
                         dto.getChannel()
-                ).map(n -> ResponseEntity.ok(ApiResponse.success("Notification created", convertNotificationToDTO(n))))
-                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create notification")));
+                ), result -> result
+                .map(n -> ResponseEntity.ok(ApiResponse.success("Notification created", convertNotificationToDTO(n))))
+                .orElse(ResponseEntity.badRequest().body(ApiResponse.error("Failed to create notification"))));
     }
 
 
     @GetMapping("/reports/schedule")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> generateScheduleReport(
+    public DeferredResult<ResponseEntity<ApiResponse<Map<String, Object>>>> generateScheduleReport(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) Long doctorId) {
 
-        ScheduleReportResponse report = dataTierClient.generateScheduleReport(startDate, endDate, doctorId);
+        return DeferredApiResponse.of(asyncDataTierClient.generateScheduleReport(startDate, endDate, doctorId),
+                this::convertReport);
+    }
 
+    private ResponseEntity<ApiResponse<Map<String, Object>>> convertReport(ScheduleReportResponse report) {
         Map<String, Object> reportData = new HashMap<>();
         reportData.put("totalAppointments", report.getTotalAppointments());
         reportData.put("completedAppointments", report.getCompletedAppointments());
@@ -0,0 +1,71 @@
+package com.clinic.logic.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Writes an {@code ApiResponse}-shaped JSON body whose {@code data} array is filled
+ * row by row from a data-tier stream, so large lists are never buffered in full.
+ * The status is usually committed before the stream ends, so {@code success} and
+ * {@code message} follow the array: a stream that fails part-way still ends in
+ * well-formed JSON, but with {@code success: false} and the rows it got so far.
+ */
+final class StreamingApiResponse {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingApiResponse.class);
+
+    private static final int FLUSH_EVERY = 200;
+
+    private StreamingApiResponse() {
+    }
+
+    static <M> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper,
+                                                        Consumer<Consumer<M>> source,
+                                                        Function<M, ?> mapper) {
+        StreamingResponseBody body = outputStream -> {
+            // Closing must not complete the JSON on its own, or a failed stream would read as a whole one
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("data");
+                int[] written = {0};
+                String failure = null;
+                try {
+                    source.accept(row -> {
+                        try {
+                            generator.writeObject(mapper.apply(row));
+                            if (++written[0] % FLUSH_EVERY == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    // The client is gone; there is nobody left to tell
+                    throw e.getCause();
+                } catch (RuntimeException e) {
+                    logger.error("Stream failed after {} rows: {}", written[0], e.getMessage());
+                    failure = "Failed after " + written[0] + " rows: " + e.getMessage();
+                }
+                generator.writeEndArray();
+                generator.writeBooleanField("success", failure == null);
+                generator.writeStringField("message", failure == null ? "Success" : failure);
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,15 @@
+package com.clinic.logic.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingResultDTO {
+    private Long slotId;
+    private String status;
+    private AppointmentDTO appointment;
+}
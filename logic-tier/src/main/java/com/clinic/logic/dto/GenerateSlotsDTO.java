@@ -0,0 +1,42 @@
+package com.clinic.logic.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerateSlotsDTO {
+
+    @NotEmpty(message = "At least one doctor is required")
+    private List<Long> doctorIds;
+
+    @NotBlank(message = "Start date is required")
+    @Pattern(regexp = "^\\d{4}-\\d{2}-\\d{2}$", message = "Date must be in YYYY-MM-DD format")
+    private String dateFrom;
+
+    @NotBlank(message = "End date is required")
+    @Pattern(regexp = "^\\d{4}-\\d{2}-\\d{2}$", message = "Date must be in YYYY-MM-DD format")
+    private String dateTo;
+
+    private List<String> daysOfWeek;
+
+    @NotBlank(message = "Day start is required")
+    @Pattern(regexp = "^\\d{2}:\\d{2}$", message = "Day start must be in HH:mm format")
+    private String dayStart;
+
+    @NotBlank(message = "Day end is required")
+    @Pattern(regexp = "^\\d{2}:\\d{2}$", message = "Day end must be in HH:mm format")
+    private String dayEnd;
+
+    @Positive(message = "Slot length must be positive")
+    private int slotMinutes;
+}
@@ -2,14 +2,21 @@ package com.clinic.logic.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
@@ -21,9 +28,54 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Map<ByteBuffer, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, VerifiedToken> eldest) {
+                return size() > maxCachedTokens;
+            }
+        });
+    }
+
+    /**
+     * Verifies the signature and expiry once per token and remembers the claims
+     * until the token's {@code exp}, so repeat requests with the same token are a
+     * map lookup. Entries are keyed by the token's SHA-256 so the cache holds no
+     * usable bearer tokens; the least recently used are dropped past
+     * {@code jwt.cache.max-entries}.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        ByteBuffer key = ByteBuffer.wrap(sha256(token));
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.isFresh()) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(key);
+        }
+        try {
+            Claims claims = extractAllClaims(token);
+            Long userId = claims.get("userId", Long.class);
+            Date expiresAt = claims.getExpiration();
+            if (userId == null || expiresAt == null) {
+                return Optional.empty();
+            }
+            VerifiedToken verified = new VerifiedToken(userId, claims.get("userType", String.class), expiresAt.getTime());
+            verifiedTokens.put(key, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     public Long extractUserId(String token) {
@@ -46,11 +98,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     private Boolean isTokenExpired(String token) {
@@ -68,7 +116,7 @@ public class JwtUtil {
                 .subject(userId.toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -80,4 +128,18 @@ public class JwtUtil {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record VerifiedToken(Long userId, String userType, long expiresAtMillis) {
+        boolean isFresh() {
+            return System.currentTimeMillis() < expiresAtMillis;
+        }
+    }
+}
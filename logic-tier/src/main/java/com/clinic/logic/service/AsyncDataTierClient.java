@@ -0,0 +1,298 @@
+package com.clinic.logic.service;
+
+import com.clinic.grpc.*;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.stub.AbstractStub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Non-blocking client for the data tier's unary calls, built on the gRPC future
+ * stubs; {@link DataTierClient} keeps the blocking sign-in and streaming calls.
+ * Every call carries a deadline of {@code grpc.data-tier.deadline-ms} (bulk writes use
+ * {@code grpc.data-tier.bulk-deadline-ms}), and cancelling
+ * a returned future cancels the underlying call. Failures are logged and mapped to
+ * empty results.
+ */
+@Service
+public class AsyncDataTierClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDataTierClient.class);
+
+    private final PatientServiceGrpc.PatientServiceFutureStub patientStub;
+    private final DoctorServiceGrpc.DoctorServiceFutureStub doctorStub;
+    private final AppointmentServiceGrpc.AppointmentServiceFutureStub appointmentStub;
+    private final AvailableSlotServiceGrpc.AvailableSlotServiceFutureStub slotStub;
+    private final NotificationServiceGrpc.NotificationServiceFutureStub notificationStub;
+    private final ReportServiceGrpc.ReportServiceFutureStub reportStub;
+    private final long deadlineMillis;
+    private final long bulkDeadlineMillis;
+
+    public AsyncDataTierClient(ManagedChannel channel,
+                               @Value("${grpc.data-tier.deadline-ms:5000}") long deadlineMillis,
+                               @Value("${grpc.data-tier.bulk-deadline-ms:60000}") long bulkDeadlineMillis) {
+        this.patientStub = PatientServiceGrpc.newFutureStub(channel);
+        this.doctorStub = DoctorServiceGrpc.newFutureStub(channel);
+        this.appointmentStub = AppointmentServiceGrpc.newFutureStub(channel);
+        this.slotStub = AvailableSlotServiceGrpc.newFutureStub(channel);
+        this.notificationStub = NotificationServiceGrpc.newFutureStub(channel);
+        this.reportStub = ReportServiceGrpc.newFutureStub(channel);
+        this.deadlineMillis = deadlineMillis;
+        this.bulkDeadlineMillis = bulkDeadlineMillis;
+    }
+
+    // ==================== Patient ====================
+
+    public CompletableFuture<Optional<PatientMessage>> getPatientById(long id) {
+        return call("get patient", patientStub,
+                stub -> stub.getPatientById(DataTierRequests.id(id)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    // ==================== Doctor ====================
+
+    public CompletableFuture<List<DoctorMessage>> getAllDoctors() {
+        return call("get doctors", doctorStub,
+                stub -> stub.getAllDoctors(Empty.newBuilder().build()),
+                DoctorListResponse::getDoctorsList, failure -> Collections.emptyList());
+    }
+
+    public CompletableFuture<Optional<DoctorMessage>> getDoctorById(long id) {
+        return call("get doctor", doctorStub,
+                stub -> stub.getDoctorById(DataTierRequests.id(id)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    // ==================== Appointments ====================
+
+    public CompletableFuture<Optional<AppointmentMessage>> bookAppointment(long patientId, long doctorId, long slotId, String type) {
+        return call("book appointment", appointmentStub,
+                stub -> stub.bookAppointment(DataTierRequests.bookAppointment(patientId, doctorId, slotId, type)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<BookAppointmentsResponse>> bookAppointments(List<BookAppointmentRequest> items) {
+        return call("book appointments", bulkDeadlineMillis, appointmentStub,
+                stub -> stub.bookAppointments(BookAppointmentsRequest.newBuilder().addAllItems(items).build()),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<AppointmentListResponse>> getAppointmentsByFilter(Long patientId, Long doctorId,
+                                                                                       List<String> statuses,
+                                                                                       String dateFrom, String dateTo,
+                                                                                       int limit, String cursor) {
+        AppointmentFilterRequest request = DataTierRequests.appointmentFilter(patientId, doctorId, statuses,
+                dateFrom, dateTo, limit, cursor);
+        return call("filter appointments", appointmentStub,
+                stub -> stub.getAppointmentsByFilter(request),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<AppointmentMessage>> getAppointmentById(long id) {
+        return call("get appointment", appointmentStub,
+                stub -> stub.getAppointmentById(DataTierRequests.id(id)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<List<AppointmentMessage>> getDoctorDailySchedule(long doctorId, String date) {
+        return call("get doctor schedule", appointmentStub,
+                stub -> stub.getDoctorDailySchedule(DataTierRequests.dailySchedule(doctorId, date)),
+                AppointmentListResponse::getAppointmentsList, failure -> Collections.emptyList());
+    }
+
+    public CompletableFuture<Optional<AppointmentMessage>> cancelAppointment(long appointmentId, String cancelledBy, String reason) {
+        return call("cancel appointment", appointmentStub,
+                stub -> stub.cancelAppointment(DataTierRequests.cancelAppointment(appointmentId, cancelledBy, reason)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<AppointmentMessage>> updateAppointmentStatus(long appointmentId, String status, long staffId) {
+        return call("update appointment status", appointmentStub,
+                stub -> stub.updateAppointmentStatus(DataTierRequests.updateAppointmentStatus(appointmentId, status, staffId)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<AppointmentMessage>> reassignAppointment(long appointmentId, long newDoctorId, long newSlotId) {
+        return call("reassign appointment", appointmentStub,
+                stub -> stub.reassignAppointment(DataTierRequests.reassignAppointment(appointmentId, newDoctorId, newSlotId)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    // ==================== Available Slots ====================
+
+    public CompletableFuture<List<AvailableSlotMessage>> getAvailableSlots(Long doctorId, String date) {
+        return call("get available slots", slotStub,
+                stub -> stub.getAvailableSlots(DataTierRequests.availableSlots(doctorId, date)),
+                AvailableSlotListResponse::getSlotsList, failure -> Collections.emptyList());
+    }
+
+    public CompletableFuture<Optional<AvailableSlotListResponse>> getSlotsPage(Long doctorId, String date,
+                                                                              String dateFrom, String dateTo,
+                                                                              String status, int limit, String cursor) {
+        SlotFilterRequest request = DataTierRequests.slotFilter(doctorId, date, dateFrom, dateTo, status, limit, cursor);
+        return call("get slots page", slotStub,
+                stub -> stub.getSlotsByFilter(request),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<AvailableSlotMessage>> createSlot(long doctorId, String date, String startTime, String endTime) {
+        return call("create slot", slotStub,
+                stub -> stub.createSlot(DataTierRequests.newSlot(doctorId, date, startTime, endTime)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<GenerateSlotsResponse>> generateSlots(GenerateSlotsRequest request) {
+        return call("generate slots", bulkDeadlineMillis, slotStub,
+                stub -> stub.generateSlots(request),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<StatusResponse> deleteSlot(long slotId) {
+        return call("delete slot", slotStub,
+                stub -> stub.deleteSlot(DataTierRequests.id(slotId)),
+                Function.identity(),
+                failure -> StatusResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage("Failed to delete slot")
+                        .build());
+    }
+
+    // ==================== Notifications ====================
+
+    public CompletableFuture<Optional<NotificationMessage>> sendNotification(long appointmentId, long staffId,
+            long recipientId, String recipientType, String message, String type, String channel) {
+        SendNotificationRequest request = DataTierRequests.sendNotification(appointmentId, staffId,
+                recipientId, recipientType, message, type, channel);
+        return call("send notification", notificationStub,
+                stub -> stub.sendNotification(request),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<List<NotificationMessage>> getUserNotifications(long recipientId, String recipientType) {
+        return call("get notifications", notificationStub,
+                stub -> stub.getUserNotifications(DataTierRequests.notifications(recipientId, recipientType).build()),
+                NotificationListResponse::getNotificationsList, failure -> Collections.emptyList());
+    }
+
+    /**
+     * A malformed {@code since} fails the returned future with the data tier's
+     * INVALID_ARGUMENT, so the caller can answer 400 with its description.
+     */
+    public CompletableFuture<List<NotificationMessage>> getUserNotificationsSince(long recipientId, String recipientType,
+                                                                                 String since) {
+        NotificationFilterRequest request = DataTierRequests.notifications(recipientId, recipientType)
+                .setSince(since)
+                .build();
+        return call("get notifications since " + since, notificationStub,
+                stub -> stub.getUserNotifications(request),
+                NotificationListResponse::getNotificationsList, failure -> {
+                    if (failure.getCode() == Status.Code.INVALID_ARGUMENT) {
+                        throw failure.asRuntimeException();
+                    }
+                    return Collections.emptyList();
+                });
+    }
+
+    public CompletableFuture<Optional<NotificationListResponse>> getUserNotificationsPage(long recipientId, String recipientType,
+                                                                                         int limit, String cursor) {
+        NotificationFilterRequest request = DataTierRequests.notifications(recipientId, recipientType)
+                .setLimit(limit)
+                .setCursor(cursor != null ? cursor : "")
+                .build();
+        return call("get notifications page", notificationStub,
+                stub -> stub.getUserNotifications(request),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<NotificationMessage>> markNotificationAsRead(long notificationId) {
+        return call("mark notification as read", notificationStub,
+                stub -> stub.markNotificationAsRead(DataTierRequests.id(notificationId)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<MarkNotificationsReadResponse>> markNotificationsAsRead(long recipientId,
+                                                                                             String recipientType,
+                                                                                             long upToId) {
+        return call("mark notifications as read", notificationStub,
+                stub -> stub.markNotificationsAsRead(DataTierRequests.markNotificationsRead(recipientId, recipientType, upToId)),
+                Optional::of, failure -> Optional.empty());
+    }
+
+    public CompletableFuture<Optional<Long>> getUnreadNotificationCount(long recipientId, String recipientType) {
+        return call("get unread notification count", notificationStub,
+                stub -> stub.getUnreadCount(DataTierRequests.notifications(recipientId, recipientType).build()),
+                response -> Optional.of(response.getUnreadCount()), failure -> Optional.empty());
+    }
+
+    // ==================== Reports ====================
+
+    public CompletableFuture<ScheduleReportResponse> generateScheduleReport(String startDate, String endDate, Long doctorId) {
+        return call("generate report", reportStub,
+                stub -> stub.generateScheduleReport(DataTierRequests.scheduleReport(startDate, endDate, doctorId)),
+                Function.identity(), failure -> ScheduleReportResponse.getDefaultInstance());
+    }
+
+    /**
+     * Starts the call with a fresh deadline and completes the returned future from
+     * the gRPC callback, without holding any thread while the call is in flight.
+     */
+    private <S extends AbstractStub<S>, R, T> CompletableFuture<T> call(String what, S stub,
+                                                                        Function<S, ListenableFuture<R>> rpc,
+                                                                        Function<R, T> onSuccess,
+                                                                        Function<Status, T> onFailure) {
+        return call(what, deadlineMillis, stub, rpc, onSuccess, onFailure);
+    }
+
+    private <S extends AbstractStub<S>, R, T> CompletableFuture<T> call(String what, long deadline, S stub,
+                                                                        Function<S, ListenableFuture<R>> rpc,
+                                                                        Function<R, T> onSuccess,
+                                                                        Function<Status, T> onFailure) {
+        ListenableFuture<R> future = rpc.apply(stub.withDeadlineAfter(deadline, TimeUnit.MILLISECONDS));
+        CompletableFuture<T> result = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                future.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        Futures.addCallback(future, new FutureCallback<R>() {
+            @Override
+            public void onSuccess(R response) {
+                try {
+                    result.complete(onSuccess.apply(response));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (result.isCancelled()) {
+                    return;
+                }
+                Status status = Status.fromThrowable(t);
+                logger.error("Failed to {}: {}", what, status);
+                try {
+                    result.complete(onFailure.apply(status));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+}
@@ -1,18 +1,20 @@
 package com.clinic.logic.service;
 
 import com.clinic.grpc.*;
+import io.grpc.Context;
 import io.grpc.ManagedChannel;
 import io.grpc.StatusRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
- * gRPC Client for communicating with the Data Tier.
+ * gRPC Client for communicating with the Data Tier: sign-in and the streamed
+ * lists. Unary calls go through {@link AsyncDataTierClient}.
  */
 @Service
 public class DataTierClient {
@@ -22,21 +24,17 @@ public class DataTierClient {
     private final AuthServiceGrpc.AuthServiceBlockingStub authStub;
     private final PatientServiceGrpc.PatientServiceBlockingStub patientStub;
     private final DoctorServiceGrpc.DoctorServiceBlockingStub doctorStub;
-    private final StaffServiceGrpc.StaffServiceBlockingStub staffStub;
     private final AppointmentServiceGrpc.AppointmentServiceBlockingStub appointmentStub;
     private final AvailableSlotServiceGrpc.AvailableSlotServiceBlockingStub slotStub;
     private final NotificationServiceGrpc.NotificationServiceBlockingStub notificationStub;
-    private final ReportServiceGrpc.ReportServiceBlockingStub reportStub;
 
     public DataTierClient(ManagedChannel channel) {
         this.authStub = AuthServiceGrpc.newBlockingStub(channel);
         this.patientStub = PatientServiceGrpc.newBlockingStub(channel);
         this.doctorStub = DoctorServiceGrpc.newBlockingStub(channel);
-        this.staffStub = StaffServiceGrpc.newBlockingStub(channel);
         this.appointmentStub = AppointmentServiceGrpc.newBlockingStub(channel);
         this.slotStub = AvailableSlotServiceGrpc.newBlockingStub(channel);
         this.notificationStub = NotificationServiceGrpc.newBlockingStub(channel);
-        this.reportStub = ReportServiceGrpc.newBlockingStub(channel);
     }
 
     // ==================== Authentication ====================
@@ -50,6 +48,10 @@ public class DataTierClient {
                     .build();
             return authStub.login(request);
         } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == io.grpc.Status.Code.RESOURCE_EXHAUSTED) {
+                // Password checks are saturated; the controller turns this into a 503 the client can retry
+                throw e;
+            }
             logger.error("Login failed: {}", e.getStatus());
             return LoginResponse.newBuilder()
                     .setSuccess(false)
@@ -72,6 +74,10 @@ public class DataTierClient {
                     .build();
             return authStub.register(request);
         } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == io.grpc.Status.Code.RESOURCE_EXHAUSTED) {
+                // Password hashing is saturated, as for login
+                throw e;
+            }
             logger.error("Registration failed: {}", e.getStatus());
             return StatusResponse.newBuilder()
                     .setSuccess(false)
@@ -82,274 +88,61 @@ public class DataTierClient {
 
     // ==================== Patient ====================
 
-    public List<PatientMessage> getAllPatients() {
-        try {
-            return patientStub.getAllPatients(Empty.newBuilder().build()).getPatientsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get patients: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public Optional<PatientMessage> getPatientById(long id) {
-        try {
-            return Optional.of(patientStub.getPatientById(IdRequest.newBuilder().setId(id).build()));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get patient: {}", e.getStatus());
-            return Optional.empty();
-        }
+    public void streamAllPatients(Consumer<PatientMessage> consumer) {
+        consumeStream("patients", () -> patientStub.streamAllPatients(Empty.newBuilder().build()), consumer);
     }
 
     // ==================== Doctor ====================
 
-    public List<DoctorMessage> getAllDoctors() {
-        try {
-            return doctorStub.getAllDoctors(Empty.newBuilder().build()).getDoctorsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get doctors: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public Optional<DoctorMessage> getDoctorById(long id) {
-        try {
-            return Optional.of(doctorStub.getDoctorById(IdRequest.newBuilder().setId(id).build()));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get doctor: {}", e.getStatus());
-            return Optional.empty();
-        }
-    }
-
-    public List<DoctorMessage> getDoctorsBySpecialization(String specialization) {
-        try {
-            return doctorStub.getDoctorsBySpecialization(
-                    DoctorMessage.newBuilder().setSpecialization(specialization).build()
-            ).getDoctorsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get doctors by specialization: {}", e.getStatus());
-            return Collections.emptyList();
-        }
+    public void streamAllDoctors(Consumer<DoctorMessage> consumer) {
+        consumeStream("doctors", () -> doctorStub.streamAllDoctors(Empty.newBuilder().build()), consumer);
     }
 
     // ==================== Appointments ====================
 
-    public Optional<AppointmentMessage> bookAppointment(long patientId, long doctorId, long slotId, String type) {
-        try {
-            BookAppointmentRequest request = BookAppointmentRequest.newBuilder()
-                    .setPatientId(patientId)
-                    .setDoctorId(doctorId)
-                    .setSlotId(slotId)
-                    .setType(type != null ? type : "CONSULTATION")
-                    .build();
-            return Optional.of(appointmentStub.bookAppointment(request));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to book appointment: {}", e.getStatus());
-            return Optional.empty();
-        }
-    }
-
-    public List<AppointmentMessage> getPatientAppointments(long patientId) {
-        try {
-            return appointmentStub.getPatientAppointments(
-                    IdRequest.newBuilder().setId(patientId).build()
-            ).getAppointmentsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get patient appointments: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public List<AppointmentMessage> getDoctorAppointments(long doctorId) {
-        try {
-            return appointmentStub.getDoctorAppointments(
-                    IdRequest.newBuilder().setId(doctorId).build()
-            ).getAppointmentsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get doctor appointments: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public List<AppointmentMessage> getDoctorDailySchedule(long doctorId, String date) {
-        try {
-            AppointmentFilterRequest request = AppointmentFilterRequest.newBuilder()
-                    .setDoctorId(doctorId)
-                    .setDate(date)
-                    .build();
-            return appointmentStub.getDoctorDailySchedule(request).getAppointmentsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get doctor schedule: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public List<AppointmentMessage> getAllAppointments() {
-        try {
-            return appointmentStub.getAllAppointments(Empty.newBuilder().build()).getAppointmentsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get all appointments: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public Optional<AppointmentMessage> getAppointmentById(long id) {
-        try {
-            return Optional.of(appointmentStub.getAppointmentById(
-                    IdRequest.newBuilder().setId(id).build()));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get appointment: {}", e.getStatus());
-            return Optional.empty();
-        }
-    }
-
-    public Optional<AppointmentMessage> cancelAppointment(long appointmentId, String cancelledBy, String reason) {
-        try {
-            CancelAppointmentRequest request = CancelAppointmentRequest.newBuilder()
-                    .setAppointmentId(appointmentId)
-                    .setCancelledBy(cancelledBy)
-                    .setReason(reason != null ? reason : "")
-                    .build();
-            return Optional.of(appointmentStub.cancelAppointment(request));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to cancel appointment: {}", e.getStatus());
-            return Optional.empty();
-        }
+    public void streamPatientAppointments(long patientId, Consumer<AppointmentMessage> consumer) {
+        consumeStream("patient appointments",
+                () -> appointmentStub.streamPatientAppointments(DataTierRequests.id(patientId)), consumer);
     }
 
-    public Optional<AppointmentMessage> updateAppointmentStatus(long appointmentId, String status, long staffId) {
-        try {
-            UpdateAppointmentStatusRequest request = UpdateAppointmentStatusRequest.newBuilder()
-                    .setAppointmentId(appointmentId)
-                    .setStatus(status)
-                    .setStaffId(staffId)
-                    .build();
-            return Optional.of(appointmentStub.updateAppointmentStatus(request));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to update appointment status: {}", e.getStatus());
-            return Optional.empty();
-        }
+    public void streamDoctorAppointments(long doctorId, Consumer<AppointmentMessage> consumer) {
+        consumeStream("doctor appointments",
+                () -> appointmentStub.streamDoctorAppointments(DataTierRequests.id(doctorId)), consumer);
     }
 
-    public Optional<AppointmentMessage> reassignAppointment(long appointmentId, long newDoctorId, long newSlotId) {
-        try {
-            AppointmentMessage.Builder builder = AppointmentMessage.newBuilder()
-                    .setAppointmentId(appointmentId);
-            if (newDoctorId > 0) builder.setDoctorId(newDoctorId);
-            if (newSlotId > 0) builder.setSlotId(newSlotId);
-            return Optional.of(appointmentStub.reassignAppointment(builder.build()));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to reassign appointment: {}", e.getStatus());
-            return Optional.empty();
-        }
+    public void streamAllAppointments(Consumer<AppointmentMessage> consumer) {
+        consumeStream("all appointments", () -> appointmentStub.streamAllAppointments(Empty.newBuilder().build()), consumer);
     }
 
     // ==================== Available Slots ====================
 
-    public List<AvailableSlotMessage> getAvailableSlots(Long doctorId, String date) {
-        try {
-            SlotFilterRequest.Builder builder = SlotFilterRequest.newBuilder();
-            if (doctorId != null && doctorId > 0) builder.setDoctorId(doctorId);
-            if (date != null && !date.isEmpty()) builder.setDate(date);
-            return slotStub.getAvailableSlots(builder.build()).getSlotsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get available slots: {}", e.getStatus());
-            return Collections.emptyList();
-        }
+    public void streamAvailableSlots(Long doctorId, String date, Consumer<AvailableSlotMessage> consumer) {
+        consumeStream("available slots",
+                () -> slotStub.streamAvailableSlots(DataTierRequests.availableSlots(doctorId, date)), consumer);
     }
 
-    public List<AvailableSlotMessage> getDoctorSlots(long doctorId) {
-        try {
-            return slotStub.getDoctorSlots(IdRequest.newBuilder().setId(doctorId).build()).getSlotsList();
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to get doctor slots: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public Optional<AvailableSlotMessage> createSlot(long doctorId, String date, String startTime, String endTime) {
-        try {
-            AvailableSlotMessage request = AvailableSlotMessage.newBuilder()
-                    .setDoctorId(doctorId)
-                    .setDate(date)
-                    .setStartTime(startTime)
-                    .setEndTime(endTime)
-                    .build();
-            return Optional.of(slotStub.createSlot(request));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to create slot: {}", e.getStatus());
-            return Optional.empty();
-        }
-    }
-
-    public StatusResponse deleteSlot(long slotId) {
-        try {
-            return slotStub.deleteSlot(IdRequest.newBuilder().setId(slotId).build());
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to delete slot: {}", e.getStatus());
-            return StatusResponse.newBuilder()
-                    .setSuccess(false)
-                    .setMessage("Failed to delete slot")
-                    .build();
-        }
+    public void streamDoctorSlots(long doctorId, Consumer<AvailableSlotMessage> consumer) {
+        consumeStream("doctor slots", () -> slotStub.streamDoctorSlots(DataTierRequests.id(doctorId)), consumer);
     }
 
     // ==================== Notifications ====================
 
-    public Optional<NotificationMessage> sendNotification(long appointmentId, long staffId, 
-            long recipientId, String recipientType, String message, String type, String channel) {
-        try {
-            SendNotificationRequest request = SendNotificationRequest.newBuilder()
-                    .setAppointmentId(appointmentId)
-                    .setStaffId(staffId)
-                    .setRecipientId(recipientId)
-                    .setRecipientType(recipientType)
-                    .setMessage(message)
-                    .setType(type != null ? type : "MANUAL")
-                    .setChannel(channel != null ? channel : "EMAIL")
-                    .build();
-            return Optional.of(notificationStub.sendNotification(request));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to send notification: {}", e.getStatus());
-            return Optional.empty();
-        }
+    public void streamUserNotifications(long recipientId, String recipientType, Consumer<NotificationMessage> consumer) {
+        NotificationFilterRequest request = DataTierRequests.notifications(recipientId, recipientType).build();
+        consumeStream("notifications", () -> notificationStub.streamUserNotifications(request), consumer);
     }
 
-    public List<NotificationMessage> getUserNotifications(long recipientId, String recipientType) {
-        try {
-            NotificationFilterRequest request = NotificationFilterRequest.newBuilder()
-                    .setRecipientId(recipientId)
-                    .setRecipientType(recipientType)
-                    .build();
-            return notificationStub.getUserNotifications(request).getNotificationsList();
+    /**
+     * Hands each row of a server-streaming call to the consumer as it arrives. The
+     * call runs in its own cancellable context, so a consumer that stops early (for
+     * example because the HTTP client went away) also cancels the data-tier stream.
+     */
+    private <T> void consumeStream(String what, Supplier<Iterator<T>> call, Consumer<T> consumer) {
+        try (Context.CancellableContext context = Context.current().withCancellation()) {
+            context.run(() -> call.get().forEachRemaining(consumer));
         } catch (StatusRuntimeException e) {
-            logger.error("Failed to get notifications: {}", e.getStatus());
-            return Collections.emptyList();
-        }
-    }
-
-    public Optional<NotificationMessage> markNotificationAsRead(long notificationId) {
-        try {
-            return Optional.of(notificationStub.markNotificationAsRead(
-                    IdRequest.newBuilder().setId(notificationId).build()));
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to mark notification as read: {}", e.getStatus());
-            return Optional.empty();
-        }
-    }
-
-    // ==================== Reports ====================
-
-    public ScheduleReportResponse generateScheduleReport(String startDate, String endDate, Long doctorId) {
-        try {
-            ScheduleReportRequest.Builder builder = ScheduleReportRequest.newBuilder();
-            if (startDate != null) builder.setStartDate(startDate);
-            if (endDate != null) builder.setEndDate(endDate);
-            if (doctorId != null && doctorId > 0) builder.setDoctorId(doctorId);
-            return reportStub.generateScheduleReport(builder.build());
-        } catch (StatusRuntimeException e) {
-            logger.error("Failed to generate report: {}", e.getStatus());
-            return ScheduleReportResponse.getDefaultInstance();
+            logger.error("Failed to stream {}: {}", what, e.getStatus());
+            throw e;
         }
     }
 }
-
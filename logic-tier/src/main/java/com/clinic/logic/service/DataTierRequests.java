@@ -0,0 +1,141 @@
+package com.clinic.logic.service;
+
+import com.clinic.grpc.*;
+
+import java.util.List;
+
+/**
+ * Builds the data-tier requests shared by {@link DataTierClient},
+ * {@link AsyncDataTierClient} and the controllers that batch them, so every
+ * caller fills in the same defaults.
+ */
+public final class DataTierRequests {
+
+    private DataTierRequests() {
+    }
+
+    public static IdRequest id(long id) {
+        return IdRequest.newBuilder().setId(id).build();
+    }
+
+    // ==================== Appointments ====================
+
+    public static BookAppointmentRequest bookAppointment(long patientId, long doctorId, long slotId, String type) {
+        return BookAppointmentRequest.newBuilder()
+                .setPatientId(patientId)
+                .setDoctorId(doctorId)
+                .setSlotId(slotId)
+                .setType(type != null ? type : "CONSULTATION")
+                .build();
+    }
+
+    public static AppointmentFilterRequest appointmentFilter(Long patientId, Long doctorId, List<String> statuses,
+                                                             String dateFrom, String dateTo, int limit, String cursor) {
+        AppointmentFilterRequest.Builder builder = AppointmentFilterRequest.newBuilder().setLimit(limit);
+        if (patientId != null && patientId > 0) builder.setPatientId(patientId);
+        if (doctorId != null && doctorId > 0) builder.setDoctorId(doctorId);
+        if (statuses != null) builder.addAllStatuses(statuses);
+        if (dateFrom != null) builder.setDateFrom(dateFrom);
+        if (dateTo != null) builder.setDateTo(dateTo);
+        if (cursor != null) builder.setCursor(cursor);
+        return builder.build();
+    }
+
+    public static AppointmentFilterRequest dailySchedule(long doctorId, String date) {
+        return AppointmentFilterRequest.newBuilder()
+                .setDoctorId(doctorId)
+                .setDate(date)
+                .build();
+    }
+
+    public static CancelAppointmentRequest cancelAppointment(long appointmentId, String cancelledBy, String reason) {
+        return CancelAppointmentRequest.newBuilder()
+                .setAppointmentId(appointmentId)
+                .setCancelledBy(cancelledBy)
+                .setReason(reason != null ? reason : "")
+                .build();
+    }
+
+    public static UpdateAppointmentStatusRequest updateAppointmentStatus(long appointmentId, String status, long staffId) {
+        return UpdateAppointmentStatusRequest.newBuilder()
+                .setAppointmentId(appointmentId)
+                .setStatus(status)
+                .setStaffId(staffId)
+                .build();
+    }
+
+    public static AppointmentMessage reassignAppointment(long appointmentId, long newDoctorId, long newSlotId) {
+        AppointmentMessage.Builder builder = AppointmentMessage.newBuilder()
+                .setAppointmentId(appointmentId);
+        if (newDoctorId > 0) builder.setDoctorId(newDoctorId);
+        if (newSlotId > 0) builder.setSlotId(newSlotId);
+        return builder.build();
+    }
+
+    // ==================== Available Slots ====================
+
+    public static SlotFilterRequest availableSlots(Long doctorId, String date) {
+        SlotFilterRequest.Builder builder = SlotFilterRequest.newBuilder();
+        if (doctorId != null && doctorId > 0) builder.setDoctorId(doctorId);
+        if (date != null && !date.isEmpty()) builder.setDate(date);
+        return builder.build();
+    }
+
+    public static SlotFilterRequest slotFilter(Long doctorId, String date, String dateFrom, String dateTo,
+                                               String status, int limit, String cursor) {
+        SlotFilterRequest.Builder builder = availableSlots(doctorId, date).toBuilder().setLimit(limit);
+        if (dateFrom != null) builder.setDateFrom(dateFrom);
+        if (dateTo != null) builder.setDateTo(dateTo);
+        if (status != null && !status.isEmpty()) builder.setStatus(status);
+        if (cursor != null) builder.setCursor(cursor);
+        return builder.build();
+    }
+
+    public static AvailableSlotMessage newSlot(long doctorId, String date, String startTime, String endTime) {
+        return AvailableSlotMessage.newBuilder()
+                .setDoctorId(doctorId)
+                .setDate(date)
+                .setStartTime(startTime)
+                .setEndTime(endTime)
+                .build();
+    }
+
+    // ==================== Notifications ====================
+
+    public static SendNotificationRequest sendNotification(long appointmentId, long staffId, long recipientId,
+                                                           String recipientType, String message, String type, String channel) {
+        return SendNotificationRequest.newBuilder()
+                .setAppointmentId(appointmentId)
+                .setStaffId(staffId)
+                .setRecipientId(recipientId)
+                .setRecipientType(recipientType)
+                .setMessage(message)
+                .setType(type != null ? type : "MANUAL")
+                .setChannel(channel != null ? channel : "EMAIL")
+                .build();
+    }
+
+    public static NotificationFilterRequest.Builder notifications(long recipientId, String recipientType) {
+        return NotificationFilterRequest.newBuilder()
+                .setRecipientId(recipientId)
+                .setRecipientType(recipientType);
+    }
+
+    public static MarkNotificationsReadRequest markNotificationsRead(long recipientId, String recipientType, long upToId) {
+        return MarkNotificationsReadRequest.newBuilder()
+                .setRecipientId(recipientId)
+                .setRecipientType(recipientType)
+                .setUpToId(upToId)
+                .build();
+    }
+
+    // ==================== Reports ====================
+
+    public static ScheduleReportRequest scheduleReport(String startDate, String endDate, Long doctorId) {
+        ScheduleReportRequest.Builder builder = ScheduleReportRequest.newBuilder();
+        if (startDate != null) builder.setStartDate(startDate);
+        if (endDate != null) builder.setEndDate(endDate);
+        if (doctorId != null && doctorId > 0) builder.setDoctorId(doctorId);
+        return builder.build();
+    }
+}
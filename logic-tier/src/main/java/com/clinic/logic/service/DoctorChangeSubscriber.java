@@ -0,0 +1,100 @@
+package com.clinic.logic.service;
+
+import com.clinic.grpc.DoctorChangeEvent;
+import com.clinic.grpc.DoctorServiceGrpc;
+import com.clinic.grpc.Empty;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a WatchDoctorChanges stream open to the data tier and invalidates
+ * {@link DoctorDirectoryCache} for every event. Events sent while the stream was
+ * down are lost, so the whole cache is dropped on every (re)connect.
+ */
+@Component
+public class DoctorChangeSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorChangeSubscriber.class);
+
+    private final DoctorServiceGrpc.DoctorServiceStub doctorStub;
+    private final DoctorDirectoryCache doctorDirectoryCache;
+    private final long reconnectDelayMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "doctor-change-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Context.CancellableContext context;
+    private volatile boolean stopped;
+
+    public DoctorChangeSubscriber(ManagedChannel channel,
+                                  DoctorDirectoryCache doctorDirectoryCache,
+                                  @Value("${grpc.data-tier.watch-reconnect-ms:5000}") long reconnectDelayMillis) {
+        this.doctorStub = DoctorServiceGrpc.newStub(channel);
+        this.doctorDirectoryCache = doctorDirectoryCache;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (context != null) {
+            context.cancel(null);
+        }
+        scheduler.shutdownNow();
+    }
+
+    private void subscribe() {
+        if (stopped) {
+            return;
+        }
+        doctorDirectoryCache.invalidateAll();
+        Context.CancellableContext watch = Context.current().withCancellation();
+        context = watch;
+        watch.run(() -> doctorStub.watchDoctorChanges(Empty.getDefaultInstance(), new StreamObserver<>() {
+            @Override
+            public void onNext(DoctorChangeEvent event) {
+                logger.debug("Doctor {} {}, invalidating directory cache", event.getDoctorId(), event.getChangeType());
+                doctorDirectoryCache.invalidate(event.getDoctorId());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (!stopped) {
+                    logger.warn("Doctor change stream failed, retrying in {} ms: {}", reconnectDelayMillis, t.getMessage());
+                }
+                reconnect();
+            }
+
+            @Override
+            public void onCompleted() {
+                reconnect();
+            }
+        }));
+    }
+
+    private void reconnect() {
+        doctorDirectoryCache.invalidateAll();
+        if (!stopped) {
+            scheduler.schedule(this::subscribe, reconnectDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.clinic.logic.service;
+
+import com.clinic.grpc.DoctorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of the doctor directory. The full list is kept as one snapshot
+ * indexed by id and specialization; doctors fetched one at a time go into a bounded
+ * LRU map. Entries expire after {@code cache.doctors.ttl} and are dropped as soon as
+ * {@link DoctorChangeSubscriber} reports a change from the data tier.
+ */
+@Service
+public class DoctorDirectoryCache {
+
+    private final AsyncDataTierClient asyncDataTierClient;
+    private final long ttlNanos;
+    private final Map<Long, Entry<DoctorMessage>> doctors;
+
+    private volatile Entry<Directory> directory;
+    private final AtomicReference<CompletableFuture<Directory>> directoryLoad = new AtomicReference<>();
+    // Bumped on every invalidation so a load that started earlier does not store stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    public DoctorDirectoryCache(AsyncDataTierClient asyncDataTierClient,
+                                @Value("${cache.doctors.ttl:PT10M}") Duration ttl,
+                                @Value("${cache.doctors.max-entries:1000}") int maxEntries) {
+        this.asyncDataTierClient = asyncDataTierClient;
+        this.ttlNanos = ttl.toNanos();
+        this.doctors = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<DoctorMessage>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public CompletableFuture<List<DoctorMessage>> getAllDoctors() {
+        return directory().thenApply(Directory::doctors);
+    }
+
+    public CompletableFuture<List<DoctorMessage>> getDoctorsBySpecialization(String specialization) {
+        return directory().thenApply(d -> d.bySpecialization().getOrDefault(specialization, List.of()));
+    }
+
+    public CompletableFuture<Optional<DoctorMessage>> getDoctorById(long id) {
+        Entry<DoctorMessage> cached = doctors.get(id);
+        if (cached != null && cached.isFresh()) {
+            return CompletableFuture.completedFuture(Optional.of(cached.value()));
+        }
+        Entry<Directory> snapshot = directory;
+        if (snapshot != null && snapshot.isFresh() && snapshot.value().byId().containsKey(id)) {
+            return CompletableFuture.completedFuture(Optional.of(snapshot.value().byId().get(id)));
+        }
+        long loadGeneration = generation.get();
+        return asyncDataTierClient.getDoctorById(id).thenApply(result -> {
+            result.ifPresent(doctor -> {
+                if (generation.get() == loadGeneration) {
+                    doctors.put(id, new Entry<>(doctor, System.nanoTime() + ttlNanos));
+                }
+            });
+            return result;
+        });
+    }
+
+    public void invalidate(long doctorId) {
+        generation.incrementAndGet();
+        directory = null;
+        doctors.remove(doctorId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        directory = null;
+        doctors.clear();
+    }
+
+    /**
+     * Concurrent misses share one GetAllDoctors call. Callers only ever see futures
+     * derived from the shared load, so cancelling one request cannot cancel it for the rest.
+     */
+    private CompletableFuture<Directory> directory() {
+        Entry<Directory> snapshot = directory;
+        if (snapshot != null && snapshot.isFresh()) {
+            return CompletableFuture.completedFuture(snapshot.value());
+        }
+        CompletableFuture<Directory> load = new CompletableFuture<>();
+        if (!directoryLoad.compareAndSet(null, load)) {
+            CompletableFuture<Directory> pending = directoryLoad.get();
+            return pending != null ? pending : directory();
+        }
+        long loadGeneration = generation.get();
+        asyncDataTierClient.getAllDoctors().whenComplete((list, error) -> {
+            directoryLoad.set(null);
+            if (error != null) {
+                load.completeExceptionally(error);
+                return;
+            }
+            Directory loaded = Directory.of(list);
+            // A failed call also yields an empty list, so an empty directory is never cached
+            if (!list.isEmpty() && generation.get() == loadGeneration) {
+                directory = new Entry<>(loaded, System.nanoTime() + ttlNanos);
+            }
+            load.complete(loaded);
+        });
+        return load;
+    }
+
+    private record Entry<T>(T value, long expiresAtNanos) {
+        boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+    }
+
+    private record Directory(List<DoctorMessage> doctors,
+                             Map<Long, DoctorMessage> byId,
+                             Map<String, List<DoctorMessage>> bySpecialization) {
+
+        static Directory of(List<DoctorMessage> doctors) {
+            return new Directory(doctors,
+                    doctors.stream().collect(Collectors.toMap(DoctorMessage::getDoctorId, Function.identity(), (a, b) -> a)),
+                    doctors.stream().collect(Collectors.groupingBy(DoctorMessage::getSpecialization)));
+        }
+    }
+}
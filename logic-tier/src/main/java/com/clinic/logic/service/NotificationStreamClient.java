@@ -0,0 +1,40 @@
+package com.clinic.logic.service;
+
+import com.clinic.grpc.NotificationMessage;
+import com.clinic.grpc.NotificationServiceGrpc;
+import com.clinic.grpc.SubscribeNotificationsRequest;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.StreamObserver;
+import org.springframework.stereotype.Service;
+
+/**
+ * Opens SubscribeNotifications streams to the data tier. Each stream runs under
+ * its own cancellable context; cancelling it ends the call on both tiers. The
+ * stream has no deadline and stays open until either side ends it.
+ */
+@Service
+public class NotificationStreamClient {
+
+    private final NotificationServiceGrpc.NotificationServiceStub notificationStub;
+
+    public NotificationStreamClient(ManagedChannel channel) {
+        this.notificationStub = NotificationServiceGrpc.newStub(channel);
+    }
+
+    /**
+     * Delivers notifications for one recipient created after {@code afterId}
+     * (0 for only new ones) and then everything new as it is committed.
+     */
+    public Context.CancellableContext subscribe(long recipientId, String recipientType, long afterId,
+                                                StreamObserver<NotificationMessage> observer) {
+        SubscribeNotificationsRequest request = SubscribeNotificationsRequest.newBuilder()
+                .setRecipientId(recipientId)
+                .setRecipientType(recipientType)
+                .setAfterId(afterId)
+                .build();
+        Context.CancellableContext subscription = Context.current().withCancellation();
+        subscription.run(() -> notificationStub.subscribeNotifications(request, observer));
+        return subscription;
+    }
+}
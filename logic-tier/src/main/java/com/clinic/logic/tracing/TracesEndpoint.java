@@ -0,0 +1,46 @@
+package com.clinic.logic.tracing;
+
+import com.clinic.tracing.RecentTraces;
+import com.clinic.tracing.TraceWaterfall;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/traces} lists recent traces; {@code /actuator/traces/{traceId}}
+ * renders one as a text waterfall. Calls to the data tier repeated under the same
+ * parent span are listed at the end, which is how N+1 loads show up; the SQL
+ * behind each call is in the data tier's waterfall for the same trace id.
+ */
+@Component
+@Endpoint(id = "traces")
+@Import(RecentTraces.class)
+public class TracesEndpoint {
+
+    private final RecentTraces recentTraces;
+
+    public TracesEndpoint(RecentTraces recentTraces) {
+        this.recentTraces = recentTraces;
+    }
+
+    @ReadOperation
+    public List<RecentTraces.Summary> traces() {
+        return recentTraces.summaries();
+    }
+
+    @ReadOperation(produces = "text/plain")
+    public String trace(@Selector String traceId) {
+        return recentTraces.spans(traceId).map(spans -> TraceWaterfall.render(spans, TracesEndpoint::outgoingCall)).orElse(null);
+    }
+
+    // Outgoing calls, named after the RPC
+    private static String outgoingCall(SpanData span) {
+        return span.getKind() == SpanKind.CLIENT ? span.getName() : null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.clinic.tracing;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the last {@code tracing.recent-spans} finished spans in memory, so a
+ * request's waterfall can be read from {@code /actuator/traces} without a
+ * collector. Registered with the tracer provider as a span processor; both
+ * tiers compile this one copy and import it from their TracesEndpoint. Ending a
+ * span claims the next slot of a ring buffer without locking; spans are grouped
+ * into traces only when the endpoint is read, and the oldest trace listed may
+ * already have lost its first spans to newer ones.
+ */
+@Component
+public class RecentTraces implements SpanProcessor {
+
+    private static final int MAX_SUMMARIES = 200;
+
+    private final AtomicReferenceArray<SpanData> ring;
+    private final AtomicLong ended = new AtomicLong();
+
+    public RecentTraces(@Value("${tracing.recent-spans:20000}") int maxSpans) {
+        this.ring = new AtomicReferenceArray<>(maxSpans);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        ring.set((int) (ended.getAndIncrement() % ring.length()), span.toSpanData());
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    public List<Summary> summaries() {
+        return snapshot().stream()
+                .collect(Collectors.groupingBy(SpanData::getTraceId))
+                .entrySet().stream()
+                .map(trace -> {
+                    List<SpanData> spans = trace.getValue();
+                    SpanData first = spans.stream().min(Comparator.comparingLong(SpanData::getStartEpochNanos)).orElseThrow();
+                    long end = spans.stream().mapToLong(SpanData::getEndEpochNanos).max().orElseThrow();
+                    return new Summary(trace.getKey(), first.getName(), Instant.ofEpochSecond(0, first.getStartEpochNanos()),
+                            (end - first.getStartEpochNanos()) / 1_000_000.0, spans.size());
+                })
+                .sorted(Comparator.comparing(Summary::start).reversed())
+                .limit(MAX_SUMMARIES)
+                .toList();
+    }
+
+    public Optional<List<SpanData>> spans(String traceId) {
+        List<SpanData> spans = snapshot().stream().filter(span -> span.getTraceId().equals(traceId)).toList();
+        return spans.isEmpty() ? Optional.empty() : Optional.of(spans);
+    }
+
+    private List<SpanData> snapshot() {
+        List<SpanData> spans = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            SpanData span = ring.get(i);
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    public record Summary(String traceId, String rootSpan, Instant start, double durationMs, int spans) {
+    }
+}
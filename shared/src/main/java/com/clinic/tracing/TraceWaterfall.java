@@ -0,0 +1,74 @@
+package com.clinic.tracing;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Renders one trace as a text waterfall: start offset, duration and name per
+ * span, indented under its parent. Each tier passes what makes a span worth
+ * counting (a SQL statement, an outgoing call); those repeated at least
+ * {@value #REPEAT_THRESHOLD} times under one parent are listed at the end,
+ * which is how N+1 loads show up.
+ */
+public final class TraceWaterfall {
+
+    private static final int REPEAT_THRESHOLD = 3;
+
+    private TraceWaterfall() {
+    }
+
+    /**
+     * @param repeatKey what a span is counted by, or null for spans that are not
+     *                  counted; shown after the span name unless it is the name
+     */
+    public static String render(List<SpanData> spans, Function<SpanData, String> repeatKey) {
+        Map<String, SpanData> byId = spans.stream().collect(Collectors.toMap(SpanData::getSpanId, Function.identity()));
+        long origin = spans.stream().mapToLong(SpanData::getStartEpochNanos).min().orElse(0);
+
+        StringBuilder out = new StringBuilder();
+        spans.stream().sorted(Comparator.comparingLong(SpanData::getStartEpochNanos)).forEach(span -> out
+                .append(String.format("%9.2f ms %9.2f ms  ", millis(span.getStartEpochNanos() - origin),
+                        millis(span.getEndEpochNanos() - span.getStartEpochNanos())))
+                .append("  ".repeat(depth(span, byId)))
+                .append(label(span, repeatKey.apply(span)))
+                .append('\n'));
+
+        Map<String, Long> repeated = spans.stream()
+                .filter(span -> repeatKey.apply(span) != null)
+                .collect(Collectors.groupingBy(span -> parentName(span, byId) + " -> " + repeatKey.apply(span),
+                        LinkedHashMap::new, Collectors.counting()));
+        repeated.values().removeIf(count -> count < REPEAT_THRESHOLD);
+        if (!repeated.isEmpty()) {
+            out.append("\nRepeated under one parent:\n");
+            repeated.forEach((key, count) -> out.append(String.format("%6d x %s%n", count, key)));
+        }
+        return out.toString();
+    }
+
+    private static int depth(SpanData span, Map<String, SpanData> byId) {
+        int depth = 0;
+        for (SpanData parent = byId.get(span.getParentSpanId()); parent != null; parent = byId.get(parent.getParentSpanId())) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static String label(SpanData span, String key) {
+        return key != null && !key.equals(span.getName()) ? span.getName() + ": " + key : span.getName();
+    }
+
+    private static String parentName(SpanData span, Map<String, SpanData> byId) {
+        SpanData parent = byId.get(span.getParentSpanId());
+        return parent != null ? parent.getName() : "(remote)";
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}